@@ -0,0 +1,28 @@
+// Writes .gz and .br siblings for the text assets of the production build,
+// so the backend can serve them without compressing on every request.
+import fs from 'fs';
+import path from 'path';
+import zlib from 'zlib';
+
+const buildDir = path.resolve(process.argv[2] || 'build');
+const compressible = /\.(js|css|html|json|svg|txt|map|ico)$/;
+const minSize = 1024;
+
+const walk = (dir) => fs.readdirSync(dir, { withFileTypes: true })
+  .flatMap((entry) => {
+    const fullPath = path.join(dir, entry.name);
+    return entry.isDirectory() ? walk(fullPath) : [fullPath];
+  });
+
+walk(buildDir)
+  .filter((file) => compressible.test(file))
+  .forEach((file) => {
+    const content = fs.readFileSync(file);
+    if (content.length < minSize) {
+      return;
+    }
+    fs.writeFileSync(`${file}.gz`, zlib.gzipSync(content, { level: zlib.constants.Z_BEST_COMPRESSION }));
+    fs.writeFileSync(`${file}.br`, zlib.brotliCompressSync(content, {
+      params: { [zlib.constants.BROTLI_PARAM_QUALITY]: zlib.constants.BROTLI_MAX_QUALITY },
+    }));
+  });
@@ -0,0 +1,62 @@
+#!/usr/bin/env bash
+# Measures time from process start to the first successful HTTP response for each startup mode
+# and appends the results to build/startup-benchmark.csv, so runs can be compared across commits.
+#
+# usage: scripts/startup-benchmark.sh [runs]
+
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-5055}
+JAR=build/libs/app-0.0.1-SNAPSHOT.jar
+WORK=build/startup-benchmark
+RESULTS=build/startup-benchmark.csv
+URL="http://localhost:${PORT}/welcome"
+
+[ -f "$JAR" ] || ./gradlew bootJar -x test
+
+ROOT=$(pwd)
+rm -rf "$WORK" && mkdir -p "$WORK/lib"
+(
+    cd "$WORK"
+    java -Djarmode=layertools -jar "$ROOT/$JAR" extract >/dev/null
+    cp dependencies/BOOT-INF/lib/* lib/
+    if [ -d snapshot-dependencies/BOOT-INF/lib ]; then
+        cp snapshot-dependencies/BOOT-INF/lib/* lib/
+    fi
+    jar cf application.jar -C application/BOOT-INF/classes .
+)
+
+CLASSPATH="$WORK/application.jar:$WORK/lib/*"
+MAIN=hexlet.code.AppApplication
+
+java -cp "$CLASSPATH" -XX:ArchiveClassesAtExit="$WORK/app.jsa" -Dserver.port="$PORT" \
+    -Dapp.startup.exit-when-ready=true "$MAIN" >/dev/null
+
+measure() {
+    local mode=$1; shift
+    local start end
+    start=$(date +%s%N)
+    java -cp "$CLASSPATH" -Dserver.port="$PORT" "$@" "$MAIN" >"$WORK/$mode.log" 2>&1 &
+    local pid=$!
+    until curl -sf -o /dev/null "$URL"; do
+        kill -0 "$pid" 2>/dev/null || { echo "$mode: application exited, see $WORK/$mode.log" >&2; return 1; }
+        sleep 0.05
+    done
+    end=$(date +%s%N)
+    kill "$pid" && wait "$pid" 2>/dev/null || true
+    echo $(( (end - start) / 1000000 ))
+}
+
+[ -f "$RESULTS" ] || echo "commit,mode,run,time_to_first_request_ms" > "$RESULTS"
+COMMIT=$(git rev-parse --short HEAD 2>/dev/null || echo unknown)
+
+for run in $(seq 1 "$RUNS"); do
+    echo "$COMMIT,default,$run,$(measure default)" >> "$RESULTS"
+    echo "$COMMIT,lazy,$run,$(measure lazy -Dspring.profiles.active=lazy)" >> "$RESULTS"
+    echo "$COMMIT,cds,$run,$(measure cds -XX:SharedArchiveFile="$WORK/app.jsa")" >> "$RESULTS"
+    echo "$COMMIT,cds+lazy,$run,$(measure cds-lazy -XX:SharedArchiveFile="$WORK/app.jsa" \
+        -Dspring.profiles.active=lazy)" >> "$RESULTS"
+done
+
+grep "^$COMMIT," "$RESULTS" | awk -F, '{ sum[$2] += $4; n[$2]++ } END { for (m in sum) printf "%-10s %6d ms\n", m, sum[m] / n[m] }'
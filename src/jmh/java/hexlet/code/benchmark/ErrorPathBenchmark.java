@@ -0,0 +1,73 @@
+package hexlet.code.benchmark;
+
+import hexlet.code.exceptions.InvalidRequestException;
+import hexlet.code.exceptions.NotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static hexlet.code.exceptions.ErrorCode.TASK_NOT_FOUND;
+
+/**
+ * Cost of the 404 and 400 paths: the old exceptions capturing a stack trace versus the stackless
+ * domain exceptions. The exception is thrown {@code depth} frames deep, roughly the depth of a service
+ * call under the servlet, security and MVC stack, and caught at the top like the exception handler does.
+ *
+ * <p>Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+public class ErrorPathBenchmark {
+
+    @Param({"20", "120"})
+    private int depth;
+
+    private final Optional<Object> missing = Optional.empty();
+
+    @Benchmark
+    public String notFoundWithStackTrace() {
+        try {
+            return descend(depth, () -> new NoSuchElementException("Task not found"));
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public String notFoundStackless() {
+        try {
+            return descend(depth, () -> new NotFoundException(TASK_NOT_FOUND));
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public String invalidReferenceWithStackTrace() {
+        try {
+            return descend(depth, () -> new IllegalArgumentException("Label not found"));
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public String invalidReferenceStackless() {
+        try {
+            return descend(depth, () -> InvalidRequestException.invalidReference("Label not found"));
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    private String descend(final int remaining, final Supplier<RuntimeException> failure) {
+        if (remaining == 0) {
+            return (String) missing.orElseThrow(failure);
+        }
+        return descend(remaining - 1, failure);
+    }
+}
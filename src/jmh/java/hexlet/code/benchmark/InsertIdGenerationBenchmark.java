@@ -0,0 +1,115 @@
+package hexlet.code.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Inserting a chunk of an import, {@value #ROWS} tasks, the way Hibernate does it with each id generator.
+ * With an identity column every row is its own statement, since the id is only known once the row is in;
+ * with a pooled-lo sequence one {@code nextval} covers {@value #ALLOCATION_SIZE} ids and the rows go in
+ * batches of {@value #BATCH_SIZE}, as {@code hibernate.jdbc.batch_size} is set.
+ *
+ * <p>The database is an in-memory H2, so a statement costs no network round trip and the gain here is the
+ * least there is; against Postgres each statement saved also saves a round trip.
+ *
+ * <p>Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+public class InsertIdGenerationBenchmark {
+
+    private static final int ROWS = 500;
+    private static final int ALLOCATION_SIZE = 50;
+    private static final int BATCH_SIZE = 50;
+
+    private Connection connection;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:insert-ids;DB_CLOSE_DELAY=-1");
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE identity_tasks (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "name VARCHAR(255), description VARCHAR(255))");
+            statement.execute("CREATE TABLE sequence_tasks (id BIGINT PRIMARY KEY, "
+                    + "name VARCHAR(255), description VARCHAR(255))");
+            statement.execute("CREATE SEQUENCE sequence_tasks_seq INCREMENT BY " + ALLOCATION_SIZE);
+        }
+        connection.commit();
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE identity_tasks");
+            statement.execute("TRUNCATE TABLE sequence_tasks");
+        }
+        connection.commit();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public long identity() throws SQLException {
+        long lastId = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO identity_tasks (name, description) VALUES (?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < ROWS; i++) {
+                insert.setString(1, "task " + i);
+                insert.setString(2, "imported");
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    lastId = keys.getLong(1);
+                }
+            }
+        }
+        connection.commit();
+        return lastId;
+    }
+
+    @Benchmark
+    public long pooledLoSequence() throws SQLException {
+        long nextId = 0;
+        long blockEnd = 0;
+        try (PreparedStatement nextValue = connection.prepareStatement("SELECT NEXT VALUE FOR sequence_tasks_seq");
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO sequence_tasks (id, name, description) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                if (nextId == blockEnd) {
+                    try (ResultSet value = nextValue.executeQuery()) {
+                        value.next();
+                        nextId = value.getLong(1);
+                    }
+                    blockEnd = nextId + ALLOCATION_SIZE;
+                }
+                insert.setLong(1, nextId++);
+                insert.setString(2, "task " + i);
+                insert.setString(3, "imported");
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        return nextId;
+    }
+}
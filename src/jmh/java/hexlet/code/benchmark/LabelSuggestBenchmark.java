@@ -0,0 +1,76 @@
+package hexlet.code.benchmark;
+
+import hexlet.code.component.LabelTrie;
+import hexlet.code.dto.LabelSuggestion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Label suggestions for a short and a longer prefix, from the trie and, as the baseline, by filtering and
+ * ranking the whole list the way the label picker did on the client. The trie should take the same time
+ * for every label count, the baseline grows with it.
+ *
+ * <p>Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+public class LabelSuggestBenchmark {
+
+    private static final int LIMIT = 10;
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz";
+
+    @Param({"1000", "100000"})
+    private int labelCount;
+
+    private List<LabelSuggestion> labels;
+    private LabelTrie trie;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        labels = new ArrayList<>(labelCount);
+        for (long id = 1; id <= labelCount; id++) {
+            final StringBuilder name = new StringBuilder();
+            for (int i = 0; i < 8; i++) {
+                name.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            labels.add(new LabelSuggestion(id, name.append('-').append(id).toString(), (long) random.nextInt(1000)));
+        }
+        trie = LabelTrie.build(labels, 20);
+    }
+
+    @Benchmark
+    public List<LabelSuggestion> trieOneLetter() {
+        return trie.suggest("k", LIMIT);
+    }
+
+    @Benchmark
+    public List<LabelSuggestion> trieThreeLetters() {
+        return trie.suggest("kqz", LIMIT);
+    }
+
+    @Benchmark
+    public List<LabelSuggestion> scanOneLetter() {
+        return scan("k");
+    }
+
+    @Benchmark
+    public List<LabelSuggestion> scanThreeLetters() {
+        return scan("kqz");
+    }
+
+    private List<LabelSuggestion> scan(final String prefix) {
+        return labels.stream()
+                .filter(label -> label.name().toLowerCase(Locale.ROOT).startsWith(prefix))
+                .sorted(LabelTrie.RANKING)
+                .limit(LIMIT)
+                .toList();
+    }
+}
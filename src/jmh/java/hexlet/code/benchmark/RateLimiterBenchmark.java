@@ -0,0 +1,80 @@
+package hexlet.code.benchmark;
+
+import hexlet.code.component.RateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Throughput of the rate limiter with 64 threads: all of them charging the same bucket, the worst
+ * case for the CAS loop, and each charging its own user, the common case. The baseline is the same
+ * algorithm behind a single monitor, which is what a straightforward implementation would do.
+ * The limit is high enough that no request is rejected, so every call writes the bucket.
+ *
+ * <p>Run with {@code ./gradlew jmh}.
+ */
+@Threads(64)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    private static final int LIMIT = 1_000_000_000;
+
+    private final RateLimiter rateLimiter = new RateLimiter(LIMIT, LIMIT, 1, 100_000);
+    private final SynchronizedLimiter synchronizedLimiter = new SynchronizedLimiter();
+    private final AtomicInteger userIds = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class ThreadUser {
+
+        private String name;
+
+        @Setup
+        public void setUp(final RateLimiterBenchmark benchmark) {
+            name = "user" + benchmark.userIds.incrementAndGet() + "@example.com";
+        }
+    }
+
+    @Benchmark
+    public boolean sharedBucket() {
+        return rateLimiter.tryAcquire("user@example.com", "tasks", false).allowed();
+    }
+
+    @Benchmark
+    public boolean bucketPerThread(final ThreadUser user) {
+        return rateLimiter.tryAcquire(user.name, "tasks", false).allowed();
+    }
+
+    @Benchmark
+    public boolean sharedBucketSynchronized() {
+        return synchronizedLimiter.tryAcquire("user@example.com" + '\n' + "tasks");
+    }
+
+    @Benchmark
+    public boolean bucketPerThreadSynchronized(final ThreadUser user) {
+        return synchronizedLimiter.tryAcquire(user.name + '\n' + "tasks");
+    }
+
+    private static final class SynchronizedLimiter {
+
+        private static final long PERIOD = 1_000_000_000L;
+        private static final long INTERVAL = PERIOD / LIMIT;
+
+        private final Map<String, Long> arrivals = new HashMap<>();
+
+        synchronized boolean tryAcquire(final String key) {
+            final long now = System.nanoTime();
+            final long base = Math.max(arrivals.getOrDefault(key, now), now);
+            if (base - now > PERIOD - INTERVAL) {
+                return false;
+            }
+            arrivals.put(key, base + INTERVAL);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package hexlet.code.benchmark;
+
+import hexlet.code.config.security.RouteTable;
+import hexlet.code.config.security.RouteTable.Access;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.NegatedRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import static hexlet.code.config.security.RouteTable.ROUTE_ATTRIBUTE;
+import static org.springframework.http.HttpMethod.GET;
+import static org.springframework.http.HttpMethod.POST;
+
+/**
+ * Classifying a request the way the security chain does, once in {@code JWTAuthorizationFilter} and once
+ * in {@code authorizeRequests}: the Ant matchers {@code SecurityConfig} used to build, against the
+ * {@link RouteTable}, which walks the trie the first time and reads the request attribute the second.
+ * The requests cover a login, a public and a protected api route, and a static page.
+ *
+ * <p>Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+public class RouteMatchingBenchmark {
+
+    private static final String BASE_URL = "/api";
+
+    @Param({"POST /api/login", "GET /api/users/5", "PUT /api/tasks/5", "GET /static/js/main.js"})
+    private String route;
+
+    private final RequestMatcher antMatchers = new OrRequestMatcher(
+            new AntPathRequestMatcher(BASE_URL + "/login", "POST"),
+            new AntPathRequestMatcher(BASE_URL + "/token/refresh", "POST"),
+            new AntPathRequestMatcher(BASE_URL + "/users", "POST"),
+            new AntPathRequestMatcher(BASE_URL + "/users", "GET"),
+            new AntPathRequestMatcher(BASE_URL + "/users/{id}", "GET"),
+            new NegatedRequestMatcher(new AntPathRequestMatcher(BASE_URL + "/**"))
+    );
+
+    private final RouteTable routeTable = new RouteTable(Access.PUBLIC)
+            .add(POST, BASE_URL + "/login", Access.LOGIN)
+            .add(POST, BASE_URL + "/token/refresh", Access.PUBLIC)
+            .add(POST, BASE_URL + "/users", Access.PUBLIC)
+            .add(GET, BASE_URL + "/users", Access.PUBLIC)
+            .add(GET, BASE_URL + "/users/{id}", Access.PUBLIC)
+            .add(BASE_URL + "/**", Access.PROTECTED);
+    private final RequestMatcher publicRoutes = routeTable.matcher(Access.LOGIN, Access.PUBLIC);
+
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        final String[] methodAndPath = route.split(" ");
+        request = new MockHttpServletRequest(methodAndPath[0], methodAndPath[1]);
+        request.setServletPath(methodAndPath[1]);
+    }
+
+    @Benchmark
+    public boolean antMatchers() {
+        return antMatchers.matches(request) & antMatchers.matches(request);
+    }
+
+    @Benchmark
+    public boolean routeTable() {
+        request.removeAttribute(ROUTE_ATTRIBUTE);
+        return publicRoutes.matches(request) & publicRoutes.matches(request);
+    }
+}
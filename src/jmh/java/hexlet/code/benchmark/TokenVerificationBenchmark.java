@@ -0,0 +1,92 @@
+package hexlet.code.benchmark;
+
+import hexlet.code.component.JWTHelper;
+import hexlet.code.component.RevokedTokenFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static hexlet.code.component.JWTHelper.TOKEN_ID;
+
+/**
+ * What the revocation check adds to the verification of an access token in {@code JWTAuthorizationFilter}:
+ * signature and claims only, plus the {@link RevokedTokenFilter} lookup, and plus a lookup in a
+ * {@link HashSet} of the same ids for comparison. {@code revoked} ids are in the filter; the token
+ * checked is not revoked, the common case, so the filter answers without a query.
+ * Run the filter lookups with {@code -prof gc} to see they allocate nothing.
+ *
+ * <p>{@code verifyFast*} go through {@link JWTHelper#verifyToken}, the {@code Hs256Verifier} path the filter
+ * uses, against jjwt building a parser and a {@code Claims} map per token; {@code -prof gc} shows the fast
+ * path allocating only the username, the token id and the result.
+ *
+ * <p>Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+public class TokenVerificationBenchmark {
+
+    @Param({"1000", "100000"})
+    private int revoked;
+
+    private final JWTHelper jwtHelper = new JWTHelper("spring_app", 900L, 1_209_600L, 300L, "secret");
+    private final Set<String> revokedSet = new HashSet<>();
+    private RevokedTokenFilter revokedFilter;
+    private String token;
+    private String tokenId;
+
+    @Setup
+    public void setUp() {
+        revokedFilter = new RevokedTokenFilter(Math.max(100_000, revoked * 2));
+        for (int i = 0; i < revoked; i++) {
+            final String id = UUID.randomUUID().toString();
+            revokedFilter.add(id);
+            revokedSet.add(id);
+        }
+        token = jwtHelper.expiring(Map.of("username", "user@example.com"));
+        tokenId = (String) jwtHelper.verify(token).get(TOKEN_ID);
+    }
+
+    @Benchmark
+    public Object verify() {
+        return jwtHelper.verify(token).get("username");
+    }
+
+    @Benchmark
+    public Object verifyFast() {
+        return jwtHelper.verifyToken(token).username();
+    }
+
+    @Benchmark
+    public Object verifyFastAndCheckFilter() {
+        final JWTHelper.VerifiedToken verified = jwtHelper.verifyToken(token);
+        return revokedFilter.mightContain(verified.tokenId()) ? null : verified.username();
+    }
+
+    @Benchmark
+    public Object verifyAndCheckFilter() {
+        final Map<String, Object> claims = jwtHelper.verify(token);
+        return revokedFilter.mightContain((String) claims.get(TOKEN_ID)) ? null : claims.get("username");
+    }
+
+    @Benchmark
+    public Object verifyAndCheckSet() {
+        final Map<String, Object> claims = jwtHelper.verify(token);
+        return revokedSet.contains((String) claims.get(TOKEN_ID)) ? null : claims.get("username");
+    }
+
+    @Benchmark
+    public boolean checkFilter() {
+        return revokedFilter.mightContain(tokenId);
+    }
+
+    @Benchmark
+    public boolean checkSet() {
+        return revokedSet.contains(tokenId);
+    }
+}
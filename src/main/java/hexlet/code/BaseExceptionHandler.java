@@ -1,10 +1,19 @@
 package hexlet.code;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
-import hexlet.code.exceptions.InvalidRequestException;
+import hexlet.code.component.ErrorReporter;
+import hexlet.code.dto.ProblemResponse;
+import hexlet.code.exceptions.DomainException;
+import hexlet.code.exceptions.EntityInUseException;
+import hexlet.code.exceptions.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -12,59 +21,121 @@ import org.springframework.validation.ObjectError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
-import org.springframework.web.bind.annotation.ResponseBody;
-import org.springframework.web.bind.annotation.ResponseStatus;
 
-import static org.springframework.http.HttpStatus.BAD_REQUEST;
-import static org.springframework.http.HttpStatus.FORBIDDEN;
-import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
-import static org.springframework.http.HttpStatus.NOT_FOUND;
-import static org.springframework.http.HttpStatus.UNAUTHORIZED;
-import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
+import javax.servlet.http.HttpServletRequest;
 
-@ResponseBody
+import static hexlet.code.exceptions.ErrorCode.ACCESS_DENIED;
+import static hexlet.code.exceptions.ErrorCode.DATA_INTEGRITY_VIOLATION;
+import static hexlet.code.exceptions.ErrorCode.INTERNAL_ERROR;
+import static hexlet.code.exceptions.ErrorCode.MALFORMED_BODY;
+import static hexlet.code.exceptions.ErrorCode.RESOURCE_NOT_FOUND;
+import static hexlet.code.exceptions.ErrorCode.UNAUTHORIZED;
+import static hexlet.code.exceptions.ErrorCode.VALIDATION_FAILED;
+import static org.springframework.http.MediaType.APPLICATION_PROBLEM_JSON;
+
+/**
+ * Turns exceptions into {@code application/problem+json} responses and counts them
+ * in the {@code http.server.errors} metric tagged with the error code.
+ */
 @ControllerAdvice
 public class BaseExceptionHandler {
 
-    @ResponseStatus(INTERNAL_SERVER_ERROR)
+    public static final String ERRORS_METRIC = "http.server.errors";
+
+    private final Map<ErrorCode, Counter> errorCounters = new EnumMap<>(ErrorCode.class);
+    private final ErrorReporter errorReporter;
+
+    public BaseExceptionHandler(final MeterRegistry meterRegistry, final ErrorReporter errorReporter) {
+        this.errorReporter = errorReporter;
+        for (ErrorCode code : ErrorCode.values()) {
+            errorCounters.put(code, Counter.builder(ERRORS_METRIC)
+                    .description("Error responses by problem code")
+                    .tag("code", code.getCode())
+                    .tag("status", String.valueOf(code.getStatus().value()))
+                    .register(meterRegistry));
+        }
+    }
+
     @ExceptionHandler(Exception.class)
-    public String generalExceptionHandler(Exception exception) {
-        return exception.getMessage();
+    public ResponseEntity<ProblemResponse> generalExceptionHandler(Exception exception,
+                                                                   HttpServletRequest request) {
+        errorReporter.report(exception, request.getMethod() + " " + request.getRequestURI());
+        return problem(INTERNAL_ERROR, exception.getMessage(), null, request);
+    }
+
+    @ExceptionHandler(DomainException.class)
+    public ResponseEntity<ProblemResponse> domainExceptionHandler(DomainException exception,
+                                                                  HttpServletRequest request) {
+        return problem(exception.getCode(), exception.getMessage(), null, request);
+    }
+
+    @ExceptionHandler(EntityInUseException.class)
+    public ResponseEntity<ProblemResponse> entityInUseExceptionHandler(EntityInUseException exception,
+                                                                       HttpServletRequest request) {
+        return problem(exception.getCode(), exception.getMessage(), null, exception.getReferences(), request);
     }
 
-    @ResponseStatus(NOT_FOUND)
     @ExceptionHandler(NoSuchElementException.class)
-    public String noSuchElementExceptionHandler(NoSuchElementException exception) {
-        return exception.getMessage();
+    public ResponseEntity<ProblemResponse> noSuchElementExceptionHandler(NoSuchElementException exception,
+                                                                         HttpServletRequest request) {
+        return problem(RESOURCE_NOT_FOUND, exception.getMessage(), null, request);
     }
 
-    @ResponseStatus(BAD_REQUEST)
-    @ExceptionHandler({HttpMessageNotReadableException.class, InvalidRequestException.class})
-    public String validationExceptionsHandler(RuntimeException exception) {
-        return exception.getMessage();
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ProblemResponse> notReadableExceptionHandler(HttpMessageNotReadableException exception,
+                                                                       HttpServletRequest request) {
+        return problem(MALFORMED_BODY, exception.getMessage(), null, request);
     }
 
-    @ResponseStatus(UNPROCESSABLE_ENTITY)
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    public List<ObjectError> validationExceptionsHandler(MethodArgumentNotValidException exception) {
-        return exception.getAllErrors();
+    public ResponseEntity<ProblemResponse> validationExceptionsHandler(MethodArgumentNotValidException exception,
+                                                                       HttpServletRequest request) {
+        final List<ObjectError> errors = exception.getAllErrors();
+        return problem(VALIDATION_FAILED, errors.size() + " field(s) are invalid", errors, request);
     }
 
-    @ResponseStatus(UNPROCESSABLE_ENTITY)
     @ExceptionHandler(DataIntegrityViolationException.class)
-    public String validationExceptionsHandler(DataIntegrityViolationException exception) {
-        return exception.getMessage();
+    public ResponseEntity<ProblemResponse> validationExceptionsHandler(DataIntegrityViolationException exception,
+                                                                       HttpServletRequest request) {
+        return problem(DATA_INTEGRITY_VIOLATION, exception.getMessage(), null, request);
     }
 
-    @ResponseStatus(FORBIDDEN)
     @ExceptionHandler(AccessDeniedException.class)
-    public String accessDeniedException(AccessDeniedException exception) {
-        return exception.getMessage();
+    public ResponseEntity<ProblemResponse> accessDeniedException(AccessDeniedException exception,
+                                                                 HttpServletRequest request) {
+        return problem(ACCESS_DENIED, exception.getMessage(), null, request);
     }
 
-    @ResponseStatus(UNAUTHORIZED)
     @ExceptionHandler(UsernameNotFoundException.class)
-    public String userNotFoundExceptionHandler(UsernameNotFoundException exception) {
-        return exception.getMessage();
+    public ResponseEntity<ProblemResponse> userNotFoundExceptionHandler(UsernameNotFoundException exception,
+                                                                        HttpServletRequest request) {
+        return problem(UNAUTHORIZED, exception.getMessage(), null, request);
+    }
+
+    private ResponseEntity<ProblemResponse> problem(final ErrorCode code,
+                                                    final String detail,
+                                                    final List<ObjectError> errors,
+                                                    final HttpServletRequest request) {
+        return problem(code, detail, errors, null, request);
+    }
+
+    private ResponseEntity<ProblemResponse> problem(final ErrorCode code,
+                                                    final String detail,
+                                                    final List<ObjectError> errors,
+                                                    final Map<String, Long> references,
+                                                    final HttpServletRequest request) {
+        errorCounters.get(code).increment();
+        return ResponseEntity.status(code.getStatus())
+                .contentType(APPLICATION_PROBLEM_JSON)
+                .body(new ProblemResponse(
+                        code.getType(),
+                        code.getTitle(),
+                        code.getStatus().value(),
+                        detail,
+                        request.getRequestURI(),
+                        code.getCode(),
+                        errors,
+                        references
+                ));
     }
 }
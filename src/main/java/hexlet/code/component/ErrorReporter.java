@@ -0,0 +1,155 @@
+package hexlet.code.component;
+
+import com.rollbar.notifier.Rollbar;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends errors to Rollbar from a background thread, so a failing request only pays for an
+ * {@code offer} to a bounded queue. Errors with the same fingerprint, the exception class and the
+ * frame it was thrown from, are reported once per {@code error-reporting.dedup-window-sec}; repeats
+ * within the window and reports dropped because the queue of {@code error-reporting.queue-capacity}
+ * is full are only counted. The count goes with the next report of the error, or with a summary
+ * report when the window closes.
+ *
+ * <p>Metrics: {@code error.reports} tagged with {@code result} {@code queued}, {@code suppressed},
+ * {@code dropped}, {@code sent} or {@code failed}.
+ */
+@Component
+public class ErrorReporter {
+
+    public static final String REPORTS_METRIC = "error.reports";
+
+    private final Rollbar rollbar;
+    private final BlockingQueue<Report> queue;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private final long windowMillis;
+    private final Counter queued;
+    private final Counter suppressed;
+    private final Counter dropped;
+    private final Counter sent;
+    private final Counter failed;
+    private final Thread worker;
+
+    public ErrorReporter(final Rollbar rollbar,
+                         final MeterRegistry meterRegistry,
+                         @Value("${error-reporting.queue-capacity:100}") final int queueCapacity,
+                         @Value("${error-reporting.dedup-window-sec:60}") final long dedupWindowSec) {
+        this.rollbar = rollbar;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.windowMillis = TimeUnit.SECONDS.toMillis(dedupWindowSec);
+        this.queued = meterRegistry.counter(REPORTS_METRIC, "result", "queued");
+        this.suppressed = meterRegistry.counter(REPORTS_METRIC, "result", "suppressed");
+        this.dropped = meterRegistry.counter(REPORTS_METRIC, "result", "dropped");
+        this.sent = meterRegistry.counter(REPORTS_METRIC, "result", "sent");
+        this.failed = meterRegistry.counter(REPORTS_METRIC, "result", "failed");
+        this.worker = new Thread(this::sendReports, "error-reporter");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.interrupt();
+    }
+
+    /**
+     * Queues the error for reporting; never blocks.
+     */
+    public void report(final Throwable error, final String description) {
+        final long now = System.currentTimeMillis();
+        final String fingerprint = fingerprint(error);
+        final Window current = windows.get(fingerprint);
+        if (current != null && current.end > now) {
+            current.repeats.incrementAndGet();
+            suppressed.increment();
+            return;
+        }
+
+        final Window next = new Window(error, description, now + windowMillis);
+        if (current == null ? windows.putIfAbsent(fingerprint, next) != null
+                : !windows.replace(fingerprint, current, next)) {
+            // another thread opened the window first
+            report(error, description);
+            return;
+        }
+
+        final long repeats = current == null ? 0 : current.repeats.get();
+        if (queue.offer(new Report(error, description, repeats))) {
+            queued.increment();
+        } else {
+            // counted with the next report of the error
+            next.repeats.incrementAndGet();
+            dropped.increment();
+        }
+    }
+
+    private void sendReports() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                final Report report = queue.poll(1, TimeUnit.SECONDS);
+                if (report != null) {
+                    send(report);
+                }
+                closeExpiredWindows();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Reports the repeats of the errors that did not occur again after their window.
+     */
+    private void closeExpiredWindows() {
+        final long now = System.currentTimeMillis();
+        windows.forEach((fingerprint, window) -> {
+            if (window.end <= now && windows.remove(fingerprint, window) && window.repeats.get() > 0) {
+                send(new Report(window.error, window.description, window.repeats.get()));
+            }
+        });
+    }
+
+    private void send(final Report report) {
+        try {
+            rollbar.error(report.error, Map.of("repeats", report.repeats), report.description);
+            sent.increment();
+        } catch (RuntimeException e) {
+            failed.increment();
+        }
+    }
+
+    private static String fingerprint(final Throwable error) {
+        final StackTraceElement[] stackTrace = error.getStackTrace();
+        return stackTrace.length == 0
+                ? error.getClass().getName() + ':' + error.getMessage()
+                : error.getClass().getName() + '@' + stackTrace[0];
+    }
+
+    private record Report(Throwable error, String description, long repeats) {
+    }
+
+    private static final class Window {
+
+        private final Throwable error;
+        private final String description;
+        private final long end;
+        private final AtomicLong repeats = new AtomicLong();
+
+        Window(final Throwable error, final String description, final long end) {
+            this.error = error;
+            this.description = description;
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package hexlet.code.component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+
+import static hexlet.code.component.JWTHelper.ACCESS;
+import static hexlet.code.component.JWTHelper.REFRESH;
+
+/**
+ * Verifies the HS256 tokens issued by {@link JWTHelper} without jjwt: the key is derived once, each thread
+ * keeps its own {@link Mac} and buffers, and the payload is scanned for the few claims the application reads
+ * instead of being mapped to {@code Claims}. The only allocations are the strings of the username and the
+ * token id.
+ *
+ * <p>It only accepts what it fully understands. A token it cannot vouch for, because the signature, issuer
+ * or expiry does not check out or because it has anything unusual such as other algorithms, compression,
+ * {@code nbf} or escaped strings, gets {@code null}, and the caller falls back to jjwt, which either accepts
+ * it or fails with the usual exception.
+ */
+public final class Hs256Verifier {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int SIGNATURE_LENGTH = 32;
+    private static final int[] BASE64_URL = new int[128];
+
+    private static final byte[] ALG = ascii("alg");
+    private static final byte[] TYP = ascii("typ");
+    private static final byte[] HS256 = ascii("HS256");
+    private static final byte[] ISS = ascii("iss");
+    private static final byte[] EXP = ascii("exp");
+    private static final byte[] NBF = ascii("nbf");
+    private static final byte[] JTI = ascii("jti");
+    private static final byte[] TOKEN_TYPE = ascii(JWTHelper.TOKEN_TYPE);
+    private static final byte[] ACCESS_TYPE = ascii(ACCESS);
+    private static final byte[] REFRESH_TYPE = ascii(REFRESH);
+
+    static {
+        Arrays.fill(BASE64_URL, -1);
+        final String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64_URL[alphabet.charAt(i)] = i;
+        }
+    }
+
+    private final byte[] issuer;
+    private final byte[] usernameClaim;
+    private final long clockSkewMillis;
+    private final ThreadLocal<Scratch> scratch;
+
+    public Hs256Verifier(final byte[] key, final String issuer, final String usernameClaim, final long clockSkewSec) {
+        final SecretKeySpec secretKey = new SecretKeySpec(key, ALGORITHM);
+        this.issuer = issuer.getBytes(StandardCharsets.UTF_8);
+        this.usernameClaim = usernameClaim.getBytes(StandardCharsets.UTF_8);
+        this.clockSkewMillis = clockSkewSec * 1000;
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(secretKey));
+    }
+
+    /**
+     * Returns the verified token, or {@code null} if the token has to go through jjwt.
+     */
+    public JWTHelper.VerifiedToken verify(final String token, final long nowMillis) {
+        final int headerEnd = token.indexOf('.');
+        final int payloadEnd = headerEnd < 0 ? -1 : token.indexOf('.', headerEnd + 1);
+        if (payloadEnd < 0 || token.indexOf('.', payloadEnd + 1) >= 0) {
+            return null;
+        }
+        final Scratch buffers = scratch.get();
+
+        // signature over the ascii of header.payload, compared in constant time
+        final byte[] input = buffers.input(payloadEnd);
+        for (int i = 0; i < payloadEnd; i++) {
+            final char c = token.charAt(i);
+            if (c >= 128) {
+                return null;
+            }
+            input[i] = (byte) c;
+        }
+        if (decode(token, payloadEnd + 1, token.length(), buffers.signature) != SIGNATURE_LENGTH) {
+            return null;
+        }
+        try {
+            buffers.mac.update(input, 0, payloadEnd);
+            buffers.mac.doFinal(buffers.computed, 0);
+        } catch (GeneralSecurityException e) {
+            return null;
+        }
+        int difference = 0;
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            difference |= buffers.computed[i] ^ buffers.signature[i];
+        }
+        if (difference != 0) {
+            return null;
+        }
+
+        final byte[] json = buffers.json(payloadEnd);
+        final int headerLength = decode(token, 0, headerEnd, json);
+        if (headerLength < 0 || !checkHeader(buffers.scanner.reset(json, headerLength))) {
+            return null;
+        }
+        final int payloadLength = decode(token, headerEnd + 1, payloadEnd, json);
+        return payloadLength < 0 ? null : readPayload(buffers.scanner.reset(json, payloadLength), nowMillis);
+    }
+
+    private boolean checkHeader(final Scanner scanner) {
+        boolean hs256 = false;
+        if (!scanner.startObject()) {
+            return false;
+        }
+        while (scanner.nextKey()) {
+            if (scanner.keyIs(ALG)) {
+                if (!scanner.stringValue() || !scanner.valueIs(HS256)) {
+                    return false;
+                }
+                hs256 = true;
+            } else if (!scanner.keyIs(TYP) || !scanner.skipValue()) {
+                // crit, zip, kid and the like are left to jjwt
+                return false;
+            }
+        }
+        return hs256 && scanner.endObject();
+    }
+
+    private JWTHelper.VerifiedToken readPayload(final Scanner scanner, final long nowMillis) {
+        boolean issuerMatches = false;
+        long expiresAt = Long.MAX_VALUE;
+        String username = null;
+        String tokenId = null;
+        String type = ACCESS;
+        if (!scanner.startObject()) {
+            return null;
+        }
+        while (scanner.nextKey()) {
+            if (scanner.keyIs(ISS)) {
+                if (!scanner.stringValue() || !scanner.valueIs(issuer)) {
+                    return null;
+                }
+                issuerMatches = true;
+            } else if (scanner.keyIs(EXP)) {
+                expiresAt = scanner.longValue();
+                if (expiresAt < 0) {
+                    return null;
+                }
+                expiresAt *= 1000;
+            } else if (scanner.keyIs(usernameClaim)) {
+                if (!scanner.stringValue()) {
+                    return null;
+                }
+                username = scanner.valueAsString();
+            } else if (scanner.keyIs(JTI)) {
+                if (!scanner.stringValue()) {
+                    return null;
+                }
+                tokenId = scanner.valueAsString();
+            } else if (scanner.keyIs(TOKEN_TYPE)) {
+                if (!scanner.stringValue()) {
+                    return null;
+                }
+                if (scanner.valueIs(ACCESS_TYPE)) {
+                    type = ACCESS;
+                } else if (scanner.valueIs(REFRESH_TYPE)) {
+                    type = REFRESH;
+                } else {
+                    return null;
+                }
+            } else if (scanner.keyIs(NBF) || !scanner.skipValue()) {
+                return null;
+            }
+        }
+        if (!scanner.endObject() || !issuerMatches || username == null || nowMillis - clockSkewMillis > expiresAt) {
+            return null;
+        }
+        return new JWTHelper.VerifiedToken(username, tokenId, type);
+    }
+
+    /**
+     * Decodes unpadded base64url from {@code token[from, to)} into {@code out}; returns the length,
+     * or -1 if the input is not base64url or does not fit.
+     */
+    private static int decode(final String token, final int from, final int to, final byte[] out) {
+        int length = 0;
+        int bits = 0;
+        int bitCount = 0;
+        for (int i = from; i < to; i++) {
+            final char c = token.charAt(i);
+            final int value = c < 128 ? BASE64_URL[c] : -1;
+            if (value < 0) {
+                return -1;
+            }
+            bits = bits << 6 | value;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                if (length == out.length) {
+                    return -1;
+                }
+                out[length++] = (byte) (bits >> bitCount);
+            }
+        }
+        return bitCount >= 6 ? -1 : length;
+    }
+
+    private static byte[] ascii(final String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static final class Scratch {
+
+        private final Mac mac;
+        private final byte[] signature = new byte[SIGNATURE_LENGTH];
+        private final byte[] computed = new byte[SIGNATURE_LENGTH];
+        private final Scanner scanner = new Scanner();
+        private byte[] input = new byte[512];
+        private byte[] json = new byte[512];
+
+        Scratch(final SecretKeySpec key) {
+            try {
+                this.mac = Mac.getInstance(ALGORITHM);
+                this.mac.init(key);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        byte[] input(final int length) {
+            if (input.length < length) {
+                input = new byte[length];
+            }
+            return input;
+        }
+
+        byte[] json(final int encodedLength) {
+            final int length = encodedLength * 3 / 4 + 1;
+            if (json.length < length) {
+                json = new byte[length];
+            }
+            return json;
+        }
+    }
+
+    /**
+     * Walks the members of a flat json object. Strings with escapes are refused rather than unescaped.
+     */
+    private static final class Scanner {
+
+        private byte[] json;
+        private int length;
+        private int position;
+        private int members;
+        private int keyStart;
+        private int keyEnd;
+        private int valueStart;
+        private int valueEnd;
+
+        Scanner reset(final byte[] bytes, final int byteCount) {
+            this.json = bytes;
+            this.length = byteCount;
+            this.position = 0;
+            this.members = 0;
+            return this;
+        }
+
+        boolean startObject() {
+            skipWhitespace();
+            return position < length && json[position++] == '{';
+        }
+
+        boolean endObject() {
+            skipWhitespace();
+            if (position >= length || json[position++] != '}') {
+                return false;
+            }
+            skipWhitespace();
+            return position == length;
+        }
+
+        /**
+         * Moves to the next member and reads its key; {@code false} at the end of the object or on bad json,
+         * which {@link #endObject} then tells apart.
+         */
+        boolean nextKey() {
+            skipWhitespace();
+            if (members > 0) {
+                if (position >= length || json[position] != ',') {
+                    return false;
+                }
+                position++;
+                skipWhitespace();
+            }
+            if (position >= length || json[position] != '"' || !readString()) {
+                return false;
+            }
+            keyStart = valueStart;
+            keyEnd = valueEnd;
+            skipWhitespace();
+            if (position >= length || json[position++] != ':') {
+                position = length + 1;
+                return false;
+            }
+            skipWhitespace();
+            members++;
+            return true;
+        }
+
+        boolean keyIs(final byte[] key) {
+            return Arrays.equals(json, keyStart, keyEnd, key, 0, key.length);
+        }
+
+        boolean valueIs(final byte[] value) {
+            return Arrays.equals(json, valueStart, valueEnd, value, 0, value.length);
+        }
+
+        String valueAsString() {
+            return new String(json, valueStart, valueEnd - valueStart, StandardCharsets.UTF_8);
+        }
+
+        boolean stringValue() {
+            return position < length && json[position] == '"' && readString();
+        }
+
+        /**
+         * Reads a non-negative integer, -1 if the value is anything else.
+         */
+        long longValue() {
+            long value = 0;
+            final int start = position;
+            while (position < length && json[position] >= '0' && json[position] <= '9') {
+                if (value > (Long.MAX_VALUE - 9) / 10) {
+                    return -1;
+                }
+                value = value * 10 + json[position++] - '0';
+            }
+            return position == start ? -1 : value;
+        }
+
+        /**
+         * Skips a string, number or literal value; nested values are refused.
+         */
+        boolean skipValue() {
+            if (position >= length) {
+                return false;
+            }
+            if (json[position] == '"') {
+                return readString();
+            }
+            final int start = position;
+            while (position < length && json[position] != ',' && json[position] != '}'
+                    && json[position] != '{' && json[position] != '[' && json[position] != '"') {
+                position++;
+            }
+            return position > start && position < length && json[position] != '{' && json[position] != '['
+                    && json[position] != '"';
+        }
+
+        private boolean readString() {
+            valueStart = ++position;
+            while (position < length && json[position] != '"') {
+                if (json[position] == '\\') {
+                    return false;
+                }
+                position++;
+            }
+            if (position >= length) {
+                return false;
+            }
+            valueEnd = position++;
+            return true;
+        }
+
+        private void skipWhitespace() {
+            while (position < length && (json[position] == ' ' || json[position] == '\t'
+                    || json[position] == '\n' || json[position] == '\r')) {
+                position++;
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package hexlet.code.component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.exceptions.InvalidRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the responses of creating requests by their {@code Idempotency-Key} header.
+ * A retry with the same key gets the stored response without running the action again, and
+ * concurrent requests with the same key wait for the single execution in flight.
+ * Entries expire after {@code idempotency.ttl-sec}; at most {@code idempotency.max-entries} completed ones are
+ * kept.
+ * Only a SHA-256 digest of the request body is kept to detect a replay with a different body, not the
+ * body itself, which may hold a password.
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final ObjectMapper objectMapper;
+
+    public IdempotencyStore(@Value("${idempotency.ttl-sec:86400}") final long ttlSec,
+                            @Value("${idempotency.max-entries:10000}") final int maxEntries,
+                            final ObjectMapper objectMapper) {
+        this.ttlMillis = ttlSec * 1000;
+        this.maxEntries = maxEntries;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Runs the action once per key within the scope. Without a key the action just runs.
+     *
+     * @param scope     the operation, e.g. the controller path
+     * @param principal the user the keys belong to, null for an operation without one like registration
+     * @param key       the client supplied idempotency key, may be null
+     * @param request   the request body; a replay with a different body is rejected
+     * @param action    the operation to run
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(final String scope, final String principal, final String key, final Object request,
+                         final Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        evictExpired();
+
+        final String storeKey = scope + '\n' + (principal == null ? "" : principal) + '\n' + key;
+        final Entry created = new Entry(digest(request), System.currentTimeMillis() + ttlMillis);
+        final Entry existing = entries.putIfAbsent(storeKey, created);
+
+        if (existing != null && !existing.isExpired()) {
+            if (!MessageDigest.isEqual(existing.requestDigest, created.requestDigest)) {
+                throw InvalidRequestException.invalidRequest(
+                        "Idempotency-Key " + key + " was already used with a different request");
+            }
+            return (T) await(existing.result);
+        }
+        if (existing != null && !entries.replace(storeKey, existing, created)) {
+            return execute(scope, principal, key, request, action);
+        }
+
+        insertionOrder.add(storeKey);
+        evictOverflow();
+        try {
+            final T result = action.get();
+            created.result.complete(result);
+            return result;
+        } catch (Throwable e) {
+            // failures, errors too, are not remembered, the client may retry with the same key
+            entries.remove(storeKey, created);
+            created.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static Object await(final CompletableFuture<Object> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void evictExpired() {
+        final long now = System.currentTimeMillis();
+        String head;
+        while ((head = insertionOrder.peek()) != null) {
+            final Entry entry = entries.get(head);
+            if (entry != null && entry.expiresAt > now) {
+                return;
+            }
+            if (insertionOrder.remove(head) && entry != null) {
+                entries.remove(head, entry);
+            }
+        }
+    }
+
+    /**
+     * Evicts the oldest completed entries. An entry in flight is kept, or a duplicate arriving now would
+     * run the action a second time, so the store may exceed its size by the requests in flight.
+     */
+    private void evictOverflow() {
+        final Iterator<String> oldest = insertionOrder.iterator();
+        while (entries.size() > maxEntries && oldest.hasNext()) {
+            final String storeKey = oldest.next();
+            final Entry entry = entries.get(storeKey);
+            if (entry == null || entry.result.isDone()) {
+                oldest.remove();
+                if (entry != null) {
+                    entries.remove(storeKey, entry);
+                }
+            }
+        }
+    }
+
+    private byte[] digest(final Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot digest the request", e);
+        }
+    }
+
+    private static final class Entry {
+
+        private final byte[] requestDigest;
+        private final long expiresAt;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        Entry(final byte[] requestDigest, final long expiresAt) {
+            this.requestDigest = requestDigest;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired() {
+            return expiresAt <= System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package hexlet.code.component;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Delivers the batches to every application context of this JVM, for tests that run several side by side.
+ */
+@Component
+@ConditionalOnProperty(name = "invalidation.transport", havingValue = "memory")
+public class InMemoryInvalidationTransport implements InvalidationTransport {
+
+    private static final Set<InMemoryInvalidationTransport> CONNECTED = ConcurrentHashMap.newKeySet();
+
+    private final Queue<Batch> received = new ConcurrentLinkedQueue<>();
+
+    @PostConstruct
+    public void connect() {
+        CONNECTED.add(this);
+    }
+
+    @PreDestroy
+    public void disconnect() {
+        CONNECTED.remove(this);
+    }
+
+    @Override
+    public void send(final Batch batch) {
+        CONNECTED.forEach(transport -> transport.received.add(batch));
+    }
+
+    @Override
+    public List<Batch> receive() {
+        final List<Batch> batches = new ArrayList<>();
+        Batch batch;
+        while ((batch = received.poll()) != null) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+}
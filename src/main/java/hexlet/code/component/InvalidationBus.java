@@ -0,0 +1,159 @@
+package hexlet.code.component;
+
+import hexlet.code.component.InvalidationTransport.Batch;
+import hexlet.code.component.InvalidationTransport.Invalidation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Tells the other instances of the application which keys of their in-process caches a write made stale.
+ * The writer evicts its own cache as before and publishes the keys; they are sent after the commit, in
+ * batches of up to {@code invalidation.batch-size} every {@code invalidation.flush-ms}, and the batches of
+ * the other instances are received every {@code invalidation.poll-ms} and handed to the caches registered
+ * under the same name.
+ *
+ * <p>Each instance numbers its batches. A receiver that sees a number skipped, because a batch was lost in
+ * transport, failed to send or was dropped when more than {@code invalidation.max-pending} keys piled up,
+ * cannot tell what it missed and evicts {@link #ALL} of every cache instead.
+ */
+@Slf4j
+@Component
+public class InvalidationBus {
+
+    public static final String ALL = "*";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final InvalidationTransport transport;
+    private final Map<String, Consumer<String>> caches = new ConcurrentHashMap<>();
+    private final Queue<Invalidation> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final Map<String, Long> lastSequences = new ConcurrentHashMap<>();
+    private final int batchSize;
+    private final int maxPending;
+    private long sequence;
+
+    public InvalidationBus(final InvalidationTransport transport,
+                           @Value("${invalidation.batch-size:100}") final int batchSize,
+                           @Value("${invalidation.max-pending:10000}") final int maxPending) {
+        this.transport = transport;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * @param cache the name the writers publish under
+     * @param evict evicts a key of the cache, or everything for {@link #ALL}
+     */
+    public void register(final String cache, final Consumer<String> evict) {
+        caches.put(cache, evict);
+    }
+
+    /**
+     * Queues the keys for the other instances, after the commit of the current transaction if there is one.
+     */
+    public void publish(final String cache, final Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        final Runnable enqueue = () -> keys.forEach(key -> {
+            pending.add(new Invalidation(cache, key));
+            pendingCount.incrementAndGet();
+        });
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue.run();
+            }
+        });
+    }
+
+    public void publish(final String cache, final String key) {
+        publish(cache, List.of(key));
+    }
+
+    @Scheduled(fixedDelayString = "${invalidation.flush-ms:100}")
+    public synchronized void flush() {
+        if (pendingCount.get() > maxPending) {
+            log.warn("Dropped {} pending cache invalidations", drain(Integer.MAX_VALUE).size());
+            // skipping a number makes the receivers evict everything, the empty batch tells them now
+            sequence++;
+            send(List.of());
+        }
+        List<Invalidation> invalidations = drain(batchSize);
+        while (!invalidations.isEmpty()) {
+            send(invalidations);
+            invalidations = drain(batchSize);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${invalidation.poll-ms:500}")
+    public synchronized void poll() {
+        for (Batch batch : transport.receive()) {
+            if (nodeId.equals(batch.nodeId())) {
+                continue;
+            }
+            final Long last = lastSequences.get(batch.nodeId());
+            if (last != null && batch.sequence() <= last) {
+                // late, its gap has been handled
+                continue;
+            }
+            lastSequences.put(batch.nodeId(), batch.sequence());
+            if (last != null && batch.sequence() != last + 1) {
+                log.warn("Missed cache invalidations {} to {} of {}, evicting all caches",
+                        last + 1, batch.sequence() - 1, batch.nodeId());
+                caches.values().forEach(evict -> evict.accept(ALL));
+            } else {
+                batch.invalidations().forEach(this::evict);
+            }
+        }
+    }
+
+    private void send(final List<Invalidation> invalidations) {
+        try {
+            transport.send(new Batch(nodeId, ++sequence, invalidations));
+        } catch (RuntimeException e) {
+            log.warn("Failed to send {} cache invalidations", invalidations.size(), e);
+        }
+    }
+
+    private void evict(final Invalidation invalidation) {
+        final Consumer<String> evict = caches.get(invalidation.cache());
+        if (evict != null) {
+            evict.accept(invalidation.key());
+        }
+    }
+
+    /**
+     * Up to {@code max} distinct pending invalidations.
+     */
+    private List<Invalidation> drain(final int max) {
+        final Set<Invalidation> drained = new LinkedHashSet<>();
+        Invalidation invalidation;
+        while (drained.size() < max && (invalidation = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            drained.add(invalidation);
+        }
+        return new ArrayList<>(drained);
+    }
+}
@@ -0,0 +1,25 @@
+package hexlet.code.component;
+
+import java.util.List;
+
+/**
+ * Carries the batches of the {@link InvalidationBus} between the instances of the application.
+ */
+public interface InvalidationTransport {
+
+    void send(Batch batch);
+
+    /**
+     * The batches sent since the last call, by any instance including this one, in the order they were sent.
+     */
+    List<Batch> receive();
+
+    /**
+     * @param sequence one more than the previous batch of the node, so a receiver can tell it missed one
+     */
+    record Batch(String nodeId, long sequence, List<Invalidation> invalidations) {
+    }
+
+    record Invalidation(String cache, String key) {
+    }
+}
@@ -4,39 +4,80 @@ import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Clock;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.impl.DefaultClock;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.Map;
+import java.util.UUID;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import static io.jsonwebtoken.SignatureAlgorithm.HS256;
-import static io.jsonwebtoken.impl.TextCodec.BASE64;
+import static org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter.SPRING_SECURITY_FORM_USERNAME_KEY;
 
+/**
+ * Issues short-lived access tokens and long-lived refresh tokens. Both carry a random id ({@code jti})
+ * that can be revoked, and a {@value #TOKEN_TYPE} claim so one kind is never accepted for the other.
+ * Requests are authenticated with {@link #verifyToken}, which goes through {@link Hs256Verifier} and only
+ * falls back to jjwt for the tokens it does not handle.
+ */
 @Component
 public class JWTHelper {
 
-    private final String secretKey;
+    public static final String TOKEN_ID = Claims.ID;
+    public static final String TOKEN_TYPE = "token_type";
+    public static final String ACCESS = "access";
+    public static final String REFRESH = "refresh";
+
+    private final byte[] secretKey;
     private final String issuer;
     private final Long expirationSec;
+    private final Long refreshExpirationSec;
     private final Long clockSkewSec;
     private final Clock clock;
+    private final Hs256Verifier fastVerifier;
 
     public JWTHelper(@Value("${jwt.issuer:spring_app}") final String issuer,
-                     @Value("${jwt.expiration-sec:86400}") final Long expirationSec,
+                     @Value("${jwt.expiration-sec:900}") final Long expirationSec,
+                     @Value("${jwt.refresh-expiration-sec:1209600}") final Long refreshExpirationSec,
                      @Value("${jwt.clock-skew-sec:300}") final Long clockSkewSec,
                      @Value("${jwt.secret:secret}") final String secret) {
-        this.secretKey = BASE64.encode(secret);
+        this.secretKey = secret.getBytes(StandardCharsets.UTF_8);
         this.issuer = issuer;
         this.expirationSec = expirationSec;
+        this.refreshExpirationSec = refreshExpirationSec;
         this.clockSkewSec = clockSkewSec;
         this.clock = DefaultClock.INSTANCE;
+        this.fastVerifier = new Hs256Verifier(secretKey, issuer, SPRING_SECURITY_FORM_USERNAME_KEY, clockSkewSec);
     }
 
     public String expiring(final Map<String, Object> attributes) {
-        return Jwts.builder()
-                .signWith(HS256, secretKey)
-                .setClaims(getClaims(attributes, expirationSec))
-                .compact();
+        return sign(attributes, ACCESS, expirationSec);
+    }
+
+    public String refreshing(final Map<String, Object> attributes) {
+        return sign(attributes, REFRESH, refreshExpirationSec);
+    }
+
+    public Long getExpirationSec() {
+        return expirationSec;
+    }
+
+    /**
+     * Verifies a token and reads the claims needed to authenticate a request.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public VerifiedToken verifyToken(final String token) {
+        final VerifiedToken verified = fastVerifier.verify(token, System.currentTimeMillis());
+        if (verified != null) {
+            return verified;
+        }
+        final Map<String, Object> claims = verify(token);
+        final Object username = claims.get(SPRING_SECURITY_FORM_USERNAME_KEY);
+        return new VerifiedToken(
+                username == null ? null : username.toString(),
+                (String) claims.get(TOKEN_ID),
+                (String) claims.getOrDefault(TOKEN_TYPE, ACCESS));
     }
 
     public Map<String, Object> verify(final String token) {
@@ -49,10 +90,19 @@ public class JWTHelper {
                 .getBody();
     }
 
-    private Claims getClaims(final Map<String, Object> attributes, final Long expiresInSec) {
+    private String sign(final Map<String, Object> attributes, final String type, final Long expiresInSec) {
+        return Jwts.builder()
+                .signWith(HS256, secretKey)
+                .setClaims(getClaims(attributes, type, expiresInSec))
+                .compact();
+    }
+
+    private Claims getClaims(final Map<String, Object> attributes, final String type, final Long expiresInSec) {
         final Claims claims = Jwts.claims();
         claims.setIssuer(issuer);
         claims.setIssuedAt(clock.now());
+        claims.setId(UUID.randomUUID().toString());
+        claims.put(TOKEN_TYPE, type);
         claims.putAll(attributes);
         if (expiresInSec > 0) {
             claims.setExpiration(new Date(System.currentTimeMillis() + expiresInSec * 1000));
@@ -60,4 +110,10 @@ public class JWTHelper {
         return claims;
     }
 
+    /**
+     * The claims of a verified token that authentication needs; {@code tokenId} is {@code null} for tokens
+     * issued before token ids, which count as access tokens.
+     */
+    public record VerifiedToken(String username, String tokenId, String type) {
+    }
 }
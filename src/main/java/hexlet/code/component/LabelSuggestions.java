@@ -0,0 +1,190 @@
+package hexlet.code.component;
+
+import hexlet.code.dto.LabelSuggestion;
+import hexlet.code.event.LabelUsageChangedEvent;
+import hexlet.code.repository.LabelRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The labels by name prefix, for the label picker, answered from a {@link LabelTrie} in memory. Label
+ * writes are applied after their commit and the trie is rebuilt at once. Task writes change how often
+ * the labels are used: their {@link LabelUsageChangedEvent} adjusts the counts in memory, and the trie is
+ * rebuilt every {@code labels.suggest.refresh-ms} while they changed. Writes on other instances arrive on
+ * the {@link InvalidationBus} under {@value #LABELS_CACHE} as the ids of the labels they changed, and only
+ * those labels are queried again on the next refresh; all of them only after a bulk write.
+ */
+@Component
+public class LabelSuggestions {
+
+    public static final String LABELS_CACHE = "labels";
+
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
+    private final LabelRepository labelRepository;
+    private final InvalidationBus invalidationBus;
+    private final int maxSize;
+    private final Map<Long, LabelSuggestion> labels = new ConcurrentHashMap<>();
+    private final Set<Long> staleIds = ConcurrentHashMap.newKeySet();
+    private volatile LabelTrie trie;
+    private volatile boolean stale;
+    private volatile boolean changed;
+
+    public LabelSuggestions(final LabelRepository labelRepository,
+                            final InvalidationBus invalidationBus,
+                            @Value("${labels.suggest.max-size:20}") final int maxSize) {
+        this.labelRepository = labelRepository;
+        this.invalidationBus = invalidationBus;
+        this.maxSize = maxSize;
+    }
+
+    @PostConstruct
+    public void registerCache() {
+        invalidationBus.register(LABELS_CACHE, key -> {
+            if (InvalidationBus.ALL.equals(key)) {
+                stale = true;
+            } else {
+                staleIds.add(Long.valueOf(key));
+            }
+        });
+    }
+
+    /**
+     * @param limit at most {@code labels.suggest.max-size}
+     */
+    public List<LabelSuggestion> suggest(final String prefix, final int limit) {
+        LabelTrie current = trie;
+        if (current == null) {
+            reload();
+            current = trie;
+        }
+        return current.suggest(prefix, Math.max(1, Math.min(limit, maxSize)));
+    }
+
+    /**
+     * A created or renamed label, with the usage count it had. Before the first suggestion nothing is
+     * loaded yet, and the label is left to the load.
+     */
+    public void put(final Long id, final String name) {
+        afterCommit(() -> {
+            synchronized (this) {
+                if (trie == null) {
+                    return;
+                }
+                final LabelSuggestion previous = labels.get(id);
+                labels.put(id, new LabelSuggestion(id, name, previous == null ? 0L : previous.usage()));
+                rebuild();
+            }
+        });
+        invalidationBus.publish(LABELS_CACHE, String.valueOf(id));
+    }
+
+    public void remove(final Long id) {
+        afterCommit(() -> {
+            synchronized (this) {
+                if (trie == null) {
+                    return;
+                }
+                labels.remove(id);
+                rebuild();
+            }
+        });
+        invalidationBus.publish(LABELS_CACHE, String.valueOf(id));
+    }
+
+    @EventListener
+    public void onLabelUsageChanged(final LabelUsageChangedEvent event) {
+        if (event.isEmpty()) {
+            return;
+        }
+        if (event.allLabels()) {
+            afterCommit(() -> stale = true);
+            invalidationBus.publish(LABELS_CACHE, InvalidationBus.ALL);
+            return;
+        }
+        afterCommit(() -> {
+            synchronized (this) {
+                if (trie == null) {
+                    return;
+                }
+                event.deltas().forEach((id, delta) -> labels.computeIfPresent(id, (key, label) ->
+                        new LabelSuggestion(id, label.name(), Math.max(0L, label.usage() + delta))));
+                changed = true;
+            }
+        });
+        invalidationBus.publish(LABELS_CACHE, event.deltas().keySet().stream().map(String::valueOf).toList());
+    }
+
+    @Scheduled(fixedDelayString = "${labels.suggest.refresh-ms:5000}")
+    public void refresh() {
+        if (stale) {
+            reload();
+        } else if (!staleIds.isEmpty()) {
+            reloadStale();
+        } else if (changed) {
+            synchronized (this) {
+                rebuild();
+            }
+        }
+    }
+
+    /**
+     * Queries all the labels with their usage counts.
+     */
+    public synchronized void reload() {
+        stale = false;
+        staleIds.clear();
+        final List<LabelSuggestion> loaded = labelRepository.findSuggestions();
+        labels.clear();
+        loaded.forEach(label -> labels.put(label.id(), label));
+        rebuild();
+    }
+
+    /**
+     * Queries the labels changed on other instances; those not found anymore were deleted.
+     */
+    private synchronized void reloadStale() {
+        final Set<Long> ids = new HashSet<>(staleIds);
+        staleIds.removeAll(ids);
+        if (trie == null) {
+            return;
+        }
+        final List<Long> idList = new ArrayList<>(ids);
+        for (int from = 0; from < idList.size(); from += MAX_IDS_PER_QUERY) {
+            final List<Long> chunk = idList.subList(from, Math.min(from + MAX_IDS_PER_QUERY, idList.size()));
+            chunk.forEach(labels::remove);
+            labelRepository.findSuggestions(chunk).forEach(label -> labels.put(label.id(), label));
+        }
+        rebuild();
+    }
+
+    private void rebuild() {
+        changed = false;
+        trie = LabelTrie.build(labels.values(), maxSize);
+    }
+
+    private static void afterCommit(final Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,114 @@
+package hexlet.code.component;
+
+import hexlet.code.dto.LabelSuggestion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable trie of the label names, ignoring case, in which every node holds the best ranked labels
+ * under it: the most used first, then by name. A lookup walks one node per character of the prefix and
+ * returns the list of the node as it is, so it takes the same time with ten labels as with a million.
+ * Built from the labels sorted by rank, each node keeping the first {@code maxSize} that pass through.
+ */
+public final class LabelTrie {
+
+    public static final Comparator<LabelSuggestion> RANKING = Comparator
+            .comparing(LabelSuggestion::usage, Comparator.reverseOrder())
+            .thenComparing(LabelSuggestion::name, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(LabelSuggestion::id);
+
+    private static final Node EMPTY = new Node(new char[0], new Node[0], List.of());
+
+    private final Node root;
+
+    private LabelTrie(final Node root) {
+        this.root = root;
+    }
+
+    public static LabelTrie empty() {
+        return new LabelTrie(EMPTY);
+    }
+
+    public static LabelTrie build(final Collection<LabelSuggestion> labels, final int maxSize) {
+        final List<LabelSuggestion> ranked = new ArrayList<>(labels);
+        ranked.sort(RANKING);
+        final NodeBuilder root = new NodeBuilder();
+        for (LabelSuggestion label : ranked) {
+            final String name = normalize(label.name());
+            NodeBuilder node = root;
+            node.offer(label, maxSize);
+            for (int i = 0; i < name.length(); i++) {
+                node = node.children.computeIfAbsent(name.charAt(i), c -> new NodeBuilder());
+                node.offer(label, maxSize);
+            }
+        }
+        return new LabelTrie(root.build());
+    }
+
+    /**
+     * @return the best ranked labels whose name starts with the prefix, at most {@code limit} of them
+     */
+    public List<LabelSuggestion> suggest(final String prefix, final int limit) {
+        final String key = normalize(prefix);
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        return node.top.size() <= limit ? node.top : node.top.subList(0, limit);
+    }
+
+    private static String normalize(final String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Node {
+
+        private final char[] keys;
+        private final Node[] children;
+        private final List<LabelSuggestion> top;
+
+        Node(final char[] keys, final Node[] children, final List<LabelSuggestion> top) {
+            this.keys = keys;
+            this.children = children;
+            this.top = top;
+        }
+
+        Node child(final char key) {
+            final int index = Arrays.binarySearch(keys, key);
+            return index < 0 ? null : children[index];
+        }
+    }
+
+    private static final class NodeBuilder {
+
+        private final Map<Character, NodeBuilder> children = new TreeMap<>();
+        private final List<LabelSuggestion> top = new ArrayList<>();
+
+        void offer(final LabelSuggestion label, final int maxSize) {
+            if (top.size() < maxSize) {
+                top.add(label);
+            }
+        }
+
+        Node build() {
+            final char[] keys = new char[children.size()];
+            final Node[] nodes = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, NodeBuilder> child : children.entrySet()) {
+                keys[i] = child.getKey();
+                nodes[i++] = child.getValue().build();
+            }
+            return new Node(keys, nodes, List.copyOf(top));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package hexlet.code.component;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user request budgets, one for reads and one for writes, counted separately for every route class.
+ *
+ * <p>Each bucket is a single {@link AtomicLong} holding the theoretical arrival time of the generic cell
+ * rate algorithm, so taking a token is one CAS and no bucket is ever locked; the buckets live in a
+ * {@link ConcurrentHashMap}, which stripes its bins, so different users do not contend at all.
+ * A bucket whose arrival time has passed is full again and is indistinguishable from a new one,
+ * such idle buckets are swept once a period, or once a second while {@code rate-limit.max-keys} is reached.
+ */
+@Component
+public class RateLimiter {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong();
+    private final long origin = System.nanoTime();
+    private final Budget reads;
+    private final Budget writes;
+    private final long periodNanos;
+    private final int maxKeys;
+
+    public RateLimiter(@Value("${rate-limit.read-limit:600}") final int readLimit,
+                       @Value("${rate-limit.write-limit:120}") final int writeLimit,
+                       @Value("${rate-limit.period-sec:60}") final long periodSec,
+                       @Value("${rate-limit.max-keys:100000}") final int maxKeys) {
+        this.periodNanos = TimeUnit.SECONDS.toNanos(periodSec);
+        this.reads = new Budget(readLimit, periodNanos);
+        this.writes = new Budget(writeLimit, periodNanos);
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Takes a token from the bucket of the user and route class.
+     *
+     * @param user       the authenticated user name
+     * @param routeClass the group of endpoints sharing the budget, e.g. {@code tasks}
+     * @param write      whether the request changes state
+     */
+    public Decision tryAcquire(final String user, final String routeClass, final boolean write) {
+        final Budget budget = write ? writes : reads;
+        final long now = System.nanoTime() - origin;
+        sweepIfDue(now);
+
+        final String key = user + '\n' + routeClass + (write ? "\nw" : "\nr");
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.size() < maxKeys
+                    ? buckets.computeIfAbsent(key, k -> new AtomicLong(now))
+                    // still full after the sweep: serve the request from a throwaway full bucket
+                    : new AtomicLong(now);
+        }
+        return budget.take(bucket, now);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private void sweepIfDue(final long now) {
+        final long last = lastSweep.get();
+        final long interval = buckets.size() >= maxKeys ? NANOS_PER_SECOND : periodNanos;
+        // a single thread wins the CAS and sweeps, the others go on
+        if (now - last >= interval && lastSweep.compareAndSet(last, now)) {
+            buckets.values().removeIf(bucket -> bucket.get() <= now);
+        }
+    }
+
+    /**
+     * Outcome of a token request together with the values of the {@code RateLimit-*} headers.
+     *
+     * @param resetSeconds      seconds until the bucket is full again
+     * @param retryAfterSeconds seconds until the next request is allowed, {@code 0} when allowed
+     */
+    public record Decision(boolean allowed, int limit, int remaining, long resetSeconds, long retryAfterSeconds) {
+    }
+
+    private static final class Budget {
+
+        private final int limit;
+        private final long interval;
+        private final long tolerance;
+
+        Budget(final int limit, final long periodNanos) {
+            this.limit = limit;
+            this.interval = periodNanos / limit;
+            // allows a burst of the whole limit
+            this.tolerance = periodNanos - interval;
+        }
+
+        Decision take(final AtomicLong bucket, final long now) {
+            while (true) {
+                final long arrival = bucket.get();
+                final long base = Math.max(arrival, now);
+                if (base - now > tolerance) {
+                    return new Decision(false, limit, 0, seconds(base - now), seconds(base - tolerance - now));
+                }
+                final long next = base + interval;
+                if (bucket.compareAndSet(arrival, next)) {
+                    final int remaining = (int) Math.floorDiv(tolerance - (next - now), interval) + 1;
+                    return new Decision(true, limit, remaining, seconds(next - now), 0);
+                }
+            }
+        }
+
+        private static long seconds(final long nanos) {
+            return Math.max(1, (nanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+        }
+    }
+}
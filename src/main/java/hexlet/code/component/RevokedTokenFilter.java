@@ -0,0 +1,82 @@
+package hexlet.code.component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of revoked token ids. {@link #mightContain} never allocates and reads a fixed number of
+ * words, so it can run on every request; a hit is only a candidate and has to be confirmed, a miss is final.
+ * Sized for {@code expectedIds} at a false positive rate of {@value #FALSE_POSITIVE_RATE}.
+ */
+public final class RevokedTokenFilter {
+
+    public static final double FALSE_POSITIVE_RATE = 0.001;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+
+    public RevokedTokenFilter(final int expectedIds) {
+        final int expected = Math.max(expectedIds, 1);
+        final double ln2 = Math.log(2);
+        final long optimalBits = (long) Math.ceil(-expected * Math.log(FALSE_POSITIVE_RATE) / (ln2 * ln2));
+        final int wordCount = (int) Math.max(1, (optimalBits + Long.SIZE - 1) / Long.SIZE);
+        this.words = new AtomicLongArray(wordCount);
+        this.bits = (long) wordCount * Long.SIZE;
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expected * ln2));
+    }
+
+    public void add(final String id) {
+        final long hash = hash(id);
+        final int first = (int) hash;
+        final int second = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            final long bit = index(first + i * second);
+            final int word = (int) (bit >>> 6);
+            final long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    public boolean mightContain(final String id) {
+        final long hash = hash(id);
+        final int first = (int) hash;
+        final int second = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            final long bit = index(first + i * second);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getBits() {
+        return bits;
+    }
+
+    private long index(final int combinedHash) {
+        return (combinedHash & 0xffffffffL) % bits;
+    }
+
+    /**
+     * 64-bit FNV-1a over the chars followed by a murmur finalizer; the two halves seed the
+     * Kirsch-Mitzenmacher double hashing in {@link #add} and {@link #mightContain}.
+     */
+    private static long hash(final String id) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < id.length(); i++) {
+            hash = (hash ^ id.charAt(i)) * FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+}
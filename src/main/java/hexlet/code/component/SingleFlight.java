@@ -0,0 +1,149 @@
+package hexlet.code.component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical reads: the first caller for a key runs the load and the callers
+ * arriving while it is in flight wait for it and get the same result, or the same exception.
+ * Nothing is kept once the load completes, so this is not a cache.
+ *
+ * <p>Only loads in read-only transactions, or outside a transaction, are shared: a read inside a
+ * writing transaction must see its own changes. Writers call {@link #forget(String)} so that a read
+ * issued after their commit never joins a load that started before it. Reads whose results embed those
+ * of other reads are declared with {@link #dependsOn(String, String...)} and forgotten with them.
+ *
+ * <p>Callers should come without a transaction: then only the first caller opens one, read-only, for
+ * its load, and the callers waiting for it hold no connection. Callers in a transaction each hold one
+ * while they wait.
+ *
+ * <p>The {@code single.flight.loads} metric counts loads by {@code name} and {@code result}:
+ * {@code executed} ran the loader, {@code shared} were saved by joining one in flight.
+ */
+@Component
+public class SingleFlight {
+
+    public static final String LOADS_METRIC = "single.flight.loads";
+
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> dependents = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public SingleFlight(final MeterRegistry meterRegistry, final PlatformTransactionManager transactionManager) {
+        this.meterRegistry = meterRegistry;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * @param name   the kind of read, e.g. {@code task}; used for {@link #forget(String)} and the metric
+     * @param arg    what is read, e.g. the id; must have value equality
+     * @param loader the read to run, in a read-only transaction unless the caller has one
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(final String name, final Object arg, final Supplier<T> loader) {
+        final boolean inTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+        if (inTransaction && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return loader.get();
+        }
+
+        final Key key = new Key(name, arg);
+        final CompletableFuture<Object> created = new CompletableFuture<>();
+        final CompletableFuture<Object> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            counter(name, "shared").increment();
+            return (T) await(existing);
+        }
+
+        counter(name, "executed").increment();
+        try {
+            final T result = inTransaction ? loader.get() : readOnlyTransaction.execute(status -> loader.get());
+            created.complete(result);
+            return result;
+        } catch (Throwable e) {
+            // also errors, the callers waiting for the load must not wait forever
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    /**
+     * Makes {@link #forget(String)} of any of the sources forget the loads of the name too.
+     *
+     * @param name    the kind of read whose results embed those of the sources, e.g. {@code task}
+     * @param sources the kinds of read embedded, e.g. {@code label}
+     */
+    public void dependsOn(final String name, final String... sources) {
+        for (String source : sources) {
+            dependents.computeIfAbsent(source, key -> ConcurrentHashMap.newKeySet()).add(name);
+        }
+    }
+
+    /**
+     * Stops sharing the loads of the name, and of the names depending on it, in flight now and, when called
+     * in a transaction, at its commit.
+     */
+    public void forget(final String name) {
+        final Set<String> names = withDependents(name);
+        inFlight.keySet().removeIf(key -> names.contains(key.name()));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    inFlight.keySet().removeIf(key -> names.contains(key.name()));
+                }
+            });
+        }
+    }
+
+    private Set<String> withDependents(final String name) {
+        final Set<String> names = new HashSet<>();
+        final Deque<String> pending = new ArrayDeque<>(Set.of(name));
+        while (!pending.isEmpty()) {
+            final String next = pending.pop();
+            if (names.add(next)) {
+                pending.addAll(dependents.getOrDefault(next, Set.of()));
+            }
+        }
+        return names;
+    }
+
+    private Counter counter(final String name, final String result) {
+        return meterRegistry.counter(LOADS_METRIC, "name", name, "result", result);
+    }
+
+    private static Object await(final CompletableFuture<Object> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Key(String name, Object arg) {
+    }
+}
@@ -0,0 +1,279 @@
+package hexlet.code.component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Attributes the JDBC statements to the request that issued them. For each request it sums up the
+ * statements, the time spent in the database and the rows fetched; a statement slower than
+ * {@code sql.tracing.slow-ms} is logged as it happens, with the {@value #REQUEST_ID} and {@value #ROUTE}
+ * of the request in the MDC. The route is the method and the handler's path pattern, like
+ * {@code GET /api/tasks/{id}}, so the statements of all the tasks add up under one route.
+ *
+ * <p>The {@code sql.tracing.top-size} slowest statements of each route seen in the last
+ * {@code sql.tracing.window-sec} are kept for the {@code slowqueries} actuator endpoint, one entry per
+ * statement text. Statements outside a request, like scheduled jobs, are kept under {@value #BACKGROUND}.
+ *
+ * <p>The time each request holds pooled connections, from taking one to giving it back, is recorded in the
+ * {@value #CONNECTION_HELD_METRIC} timer of its route. It shows whether the connections are returned before
+ * the response is written, or held while a slow client reads it.
+ */
+@Slf4j
+@Component
+public class SqlTracker {
+
+    public static final String REQUEST_ID = "requestId";
+    public static final String ROUTE = "route";
+    public static final String BACKGROUND = "background";
+    public static final String CONNECTION_HELD_METRIC = "sql.connection.held";
+
+    private static final String UNMAPPED = "unmapped";
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final ThreadLocal<RequestSql> current = new ThreadLocal<>();
+    private final Map<String, SlowestStatements> slowest = new ConcurrentHashMap<>();
+    private final long slowNanos;
+    private final int topSize;
+    private final long windowMillis;
+    private final int maxRoutes;
+    private final MeterRegistry meterRegistry;
+
+    public SqlTracker(@Value("${sql.tracing.slow-ms:200}") final long slowMillis,
+                      @Value("${sql.tracing.top-size:10}") final int topSize,
+                      @Value("${sql.tracing.window-sec:900}") final long windowSec,
+                      @Value("${sql.tracing.max-routes:500}") final int maxRoutes,
+                      final MeterRegistry meterRegistry) {
+        this.slowNanos = slowMillis * 1_000_000;
+        this.topSize = topSize;
+        this.windowMillis = windowSec * 1000;
+        this.maxRoutes = maxRoutes;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Starts tracking the statements of the request on this thread.
+     *
+     * @return what was tracked before, to be passed to {@link #end}; sub-requests of a batch nest
+     */
+    public RequestSql begin(final HttpServletRequest request, final String requestId) {
+        final RequestSql previous = current.get();
+        current.set(new RequestSql(request, requestId, new SlowestStatements(topSize, Long.MAX_VALUE)));
+        MDC.put(REQUEST_ID, requestId);
+        MDC.put(ROUTE, request.getMethod() + ' ' + request.getRequestURI());
+        return previous;
+    }
+
+    /**
+     * Logs the summary of the request, adds its slowest statements to those of its route and records the
+     * time it held connections.
+     */
+    public void end(final RequestSql previous) {
+        final RequestSql requestSql = current.get();
+        if (requestSql != null) {
+            final String route = route(requestSql.request, UNMAPPED);
+            MDC.put(ROUTE, route);
+            summarize(requestSql);
+            final long now = System.currentTimeMillis();
+            final SlowestStatements routeStatements = slowestOf(route);
+            if (routeStatements != null) {
+                requestSql.slowest.snapshot(now).forEach(statement -> routeStatements.offer(statement, now));
+                if (requestSql.connectionNanos > 0) {
+                    Timer.builder(CONNECTION_HELD_METRIC)
+                            .tag(ROUTE, route)
+                            .register(meterRegistry)
+                            .record(requestSql.connectionNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+        if (previous != null) {
+            current.set(previous);
+            MDC.put(REQUEST_ID, previous.requestId);
+            MDC.put(ROUTE, route(previous.request, previous.request.getRequestURI()));
+        } else {
+            current.remove();
+            MDC.remove(REQUEST_ID);
+            MDC.remove(ROUTE);
+        }
+    }
+
+    public void executed(final String sql, final long nanos) {
+        final RequestSql requestSql = current.get();
+        final long now = System.currentTimeMillis();
+        final SlowStatement statement = new SlowStatement(sql, nanos / NANOS_PER_MILLI, Instant.ofEpochMilli(now));
+        if (requestSql == null) {
+            final SlowestStatements background = slowestOf(BACKGROUND);
+            if (background != null) {
+                background.offer(statement, now);
+            }
+        } else {
+            requestSql.statements++;
+            requestSql.nanos += nanos;
+            requestSql.slowest.offer(statement, now);
+        }
+        if (nanos >= slowNanos) {
+            if (requestSql != null) {
+                MDC.put(ROUTE, route(requestSql.request, requestSql.request.getRequestURI()));
+            }
+            log.warn("Slow SQL statement, {} ms: {}", String.format("%.1f", statement.millis()), sql);
+        }
+    }
+
+    /**
+     * @param nanos from taking the connection from the pool to closing it
+     */
+    public void connectionReleased(final long nanos) {
+        final RequestSql requestSql = current.get();
+        if (requestSql != null) {
+            requestSql.connectionNanos += nanos;
+        }
+    }
+
+    public void fetched() {
+        final RequestSql requestSql = current.get();
+        if (requestSql != null) {
+            requestSql.rows++;
+        }
+    }
+
+    /**
+     * The slowest statements of each route, slowest first.
+     */
+    public Map<String, List<SlowStatement>> slowest() {
+        final long now = System.currentTimeMillis();
+        final Map<String, List<SlowStatement>> result = new TreeMap<>();
+        slowest.forEach((route, statements) -> {
+            final List<SlowStatement> snapshot = statements.snapshot(now);
+            if (!snapshot.isEmpty()) {
+                result.put(route, snapshot);
+            }
+        });
+        return result;
+    }
+
+    private void summarize(final RequestSql requestSql) {
+        if (requestSql.statements == 0) {
+            return;
+        }
+        final boolean slow = requestSql.nanos >= slowNanos;
+        if (slow || log.isDebugEnabled()) {
+            final String summary = String.format(
+                    "%d statements, %.1f ms in the database, %d rows fetched, %.1f ms holding connections",
+                    requestSql.statements, requestSql.nanos / NANOS_PER_MILLI, requestSql.rows,
+                    requestSql.connectionNanos / NANOS_PER_MILLI);
+            if (slow) {
+                log.info(summary);
+            } else {
+                log.debug(summary);
+            }
+        }
+    }
+
+    private SlowestStatements slowestOf(final String route) {
+        final SlowestStatements statements = slowest.get(route);
+        if (statements != null || slowest.size() >= maxRoutes) {
+            return statements;
+        }
+        return slowest.computeIfAbsent(route, r -> new SlowestStatements(topSize, windowMillis));
+    }
+
+    private static String route(final HttpServletRequest request, final String unmapped) {
+        final Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + ' ' + (pattern == null ? unmapped : pattern);
+    }
+
+    /**
+     * @param millis the execution time, without fetching the rows
+     * @param seenAt when the statement last ran this slow
+     */
+    public record SlowStatement(String sql, double millis, Instant seenAt) {
+    }
+
+    /**
+     * The statements of one request so far.
+     */
+    public static final class RequestSql {
+
+        private final HttpServletRequest request;
+        private final String requestId;
+        private final SlowestStatements slowest;
+        private int statements;
+        private long nanos;
+        private long rows;
+        private long connectionNanos;
+
+        RequestSql(final HttpServletRequest request, final String requestId, final SlowestStatements slowest) {
+            this.request = request;
+            this.requestId = requestId;
+            this.slowest = slowest;
+        }
+    }
+
+    /**
+     * The slowest entry of each statement text, at most {@code size} of them, forgotten after the window.
+     */
+    private static final class SlowestStatements {
+
+        private final List<SlowStatement> statements = new ArrayList<>();
+        private final int size;
+        private final long windowMillis;
+
+        SlowestStatements(final int size, final long windowMillis) {
+            this.size = size;
+            this.windowMillis = windowMillis;
+        }
+
+        synchronized void offer(final SlowStatement statement, final long now) {
+            expire(now);
+            for (int i = 0; i < statements.size(); i++) {
+                final SlowStatement existing = statements.get(i);
+                if (existing.sql().equals(statement.sql())) {
+                    if (statement.millis() >= existing.millis()) {
+                        statements.set(i, statement);
+                    }
+                    return;
+                }
+            }
+            if (statements.size() < size) {
+                statements.add(statement);
+                return;
+            }
+            int fastest = 0;
+            for (int i = 1; i < statements.size(); i++) {
+                if (statements.get(i).millis() < statements.get(fastest).millis()) {
+                    fastest = i;
+                }
+            }
+            if (statement.millis() > statements.get(fastest).millis()) {
+                statements.set(fastest, statement);
+            }
+        }
+
+        synchronized List<SlowStatement> snapshot(final long now) {
+            expire(now);
+            final List<SlowStatement> snapshot = new ArrayList<>(statements);
+            snapshot.sort(Comparator.comparingDouble(SlowStatement::millis).reversed());
+            return snapshot;
+        }
+
+        private void expire(final long now) {
+            if (windowMillis != Long.MAX_VALUE) {
+                statements.removeIf(statement -> statement.seenAt().toEpochMilli() + windowMillis <= now);
+            }
+        }
+    }
+}
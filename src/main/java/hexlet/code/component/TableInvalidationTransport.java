@@ -0,0 +1,87 @@
+package hexlet.code.component;
+
+import hexlet.code.model.CacheInvalidation;
+import hexlet.code.repository.CacheInvalidationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Sends the batches as rows of {@code cache_invalidations} and receives them by polling the table for ids
+ * past the last one read; a new instance starts from the newest row, its caches being empty. A row whose id
+ * is passed over because its transaction committed late is lost, which the receiver notices as a gap in the
+ * sequence of its node. Rows are deleted after {@code invalidation.retention-sec}.
+ */
+@Component
+@ConditionalOnProperty(name = "invalidation.transport", havingValue = "table", matchIfMissing = true)
+public class TableInvalidationTransport implements InvalidationTransport {
+
+    private static final char CACHE_SEPARATOR = '\t';
+    private static final char LINE_SEPARATOR = '\n';
+
+    private final CacheInvalidationRepository repository;
+    private final long retentionMillis;
+    private long lastId;
+
+    public TableInvalidationTransport(final CacheInvalidationRepository repository,
+                                      @Value("${invalidation.retention-sec:3600}") final long retentionSec) {
+        this.repository = repository;
+        this.retentionMillis = retentionSec * 1000;
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        lastId = repository.findMaxId();
+    }
+
+    @Override
+    public void send(final Batch batch) {
+        final StringBuilder payload = new StringBuilder();
+        for (Invalidation invalidation : batch.invalidations()) {
+            payload.append(invalidation.cache())
+                    .append(CACHE_SEPARATOR)
+                    .append(invalidation.key())
+                    .append(LINE_SEPARATOR);
+        }
+        repository.save(new CacheInvalidation(null, batch.nodeId(), batch.sequence(), payload.toString(), new Date()));
+    }
+
+    @Override
+    public synchronized List<Batch> receive() {
+        final List<Batch> batches = new ArrayList<>();
+        for (CacheInvalidation row : repository.findTop500ByIdGreaterThanOrderByIdAsc(lastId)) {
+            batches.add(new Batch(row.getNodeId(), row.getSequenceNumber(), parse(row.getPayload())));
+            lastId = row.getId();
+        }
+        return batches;
+    }
+
+    @Scheduled(fixedDelayString = "${invalidation.cleanup-interval-ms:600000}")
+    public void deleteExpired() {
+        repository.deleteCreatedBefore(new Date(System.currentTimeMillis() - retentionMillis));
+    }
+
+    private static List<Invalidation> parse(final String payload) {
+        final List<Invalidation> invalidations = new ArrayList<>();
+        int start = 0;
+        while (start < payload.length()) {
+            int end = payload.indexOf(LINE_SEPARATOR, start);
+            if (end < 0) {
+                end = payload.length();
+            }
+            final int separator = payload.indexOf(CACHE_SEPARATOR, start);
+            if (separator > start && separator < end) {
+                invalidations.add(new Invalidation(payload.substring(start, separator),
+                        payload.substring(separator + 1, end)));
+            }
+            start = end + 1;
+        }
+        return invalidations;
+    }
+}
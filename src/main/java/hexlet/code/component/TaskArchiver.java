@@ -0,0 +1,31 @@
+package hexlet.code.component;
+
+import hexlet.code.config.ArchiveProperties;
+import hexlet.code.dto.ArchivePolicyDto;
+import hexlet.code.repository.TaskStatusRepository;
+import hexlet.code.service.TaskArchiveService;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Starts an archive job for the configured archive policy every {@code tasks.archive.interval-ms}.
+ */
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(name = "tasks.archive.enabled", havingValue = "true")
+public class TaskArchiver {
+
+    private final TaskArchiveService archiveService;
+    private final TaskStatusRepository taskStatusRepository;
+    private final ArchiveProperties properties;
+
+    @Scheduled(fixedDelayString = "${tasks.archive.interval-ms:3600000}",
+            initialDelayString = "${tasks.archive.interval-ms:3600000}")
+    public void archive() {
+        properties.statusNames().forEach(name -> taskStatusRepository.findByName(name)
+                .ifPresent(status -> archiveService.archiveTasks(
+                        new ArchivePolicyDto(status.getId(), properties.olderThanDays()))));
+    }
+}
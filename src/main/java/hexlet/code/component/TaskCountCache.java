@@ -0,0 +1,113 @@
+package hexlet.code.component;
+
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Predicate;
+import hexlet.code.dto.TaskCountResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Counts of the filtered task lists, so the "N tasks" of a filter is not a {@code COUNT(*)} per request.
+ * A count is kept for {@code tasks.count.ttl-ms} and only while the write generation it was loaded in
+ * is current: every task write bumps the generation, once immediately and once more after its commit,
+ * so a count loaded before the commit is not served after it. At most {@code tasks.count.max-entries}
+ * filters are kept.
+ *
+ * <p>With {@code tasks.count.estimate-above} set, counting stops after that many tasks and the count is
+ * reported as estimated, bounding the cost of the broad filters where the exact number matters least.
+ */
+@Component
+public class TaskCountCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final long estimateAbove;
+
+    public TaskCountCache(@Value("${tasks.count.ttl-ms:10000}") final long ttlMillis,
+                          @Value("${tasks.count.max-entries:1000}") final int maxEntries,
+                          @Value("${tasks.count.estimate-above:0}") final long estimateAbove) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        this.estimateAbove = estimateAbove;
+    }
+
+    /**
+     * @param predicate the filter, may be null
+     * @param counter   counts the tasks of the filter, stopping after the given limit if it is positive
+     */
+    public TaskCountResponse count(final Predicate predicate, final LongUnaryOperator counter) {
+        final String key = key(predicate);
+        final long now = System.currentTimeMillis();
+        final long current = generation.get();
+        final Entry cached = entries.get(key);
+        if (cached != null && cached.generation == current && cached.expiresAt > now) {
+            return cached.count;
+        }
+
+        final long count = counter.applyAsLong(estimateAbove > 0 ? estimateAbove + 1 : 0);
+        final TaskCountResponse response = estimateAbove > 0 && count > estimateAbove
+                ? new TaskCountResponse(estimateAbove, true)
+                : new TaskCountResponse(count, false);
+        if (generation.get() == current) {
+            if (entries.size() >= maxEntries) {
+                entries.values().removeIf(entry -> entry.generation != current || entry.expiresAt <= now);
+            }
+            if (entries.size() < maxEntries) {
+                entries.put(key, new Entry(response, current, now + ttlMillis));
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Called on every task write.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    /**
+     * The filter with its top-level conditions in a fixed order, so {@code ?a=1&b=2} and {@code ?b=2&a=1}
+     * share a count.
+     */
+    private static String key(final Predicate predicate) {
+        if (predicate == null) {
+            return "";
+        }
+        final List<String> conditions = new ArrayList<>();
+        collectConditions(predicate, conditions);
+        conditions.sort(null);
+        return String.join(" && ", conditions);
+    }
+
+    private static void collectConditions(final Object expression, final List<String> conditions) {
+        if (expression instanceof Operation<?> operation && operation.getOperator() == Ops.AND) {
+            operation.getArgs().forEach(arg -> collectConditions(arg, conditions));
+        } else {
+            conditions.add(expression.toString());
+        }
+    }
+
+    private record Entry(TaskCountResponse count, long generation, long expiresAt) {
+    }
+}
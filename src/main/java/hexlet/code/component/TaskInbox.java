@@ -0,0 +1,125 @@
+package hexlet.code.component;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Ids of the tasks assigned to each user, kept up to date by the task writes instead of being queried
+ * on every {@code GET /tasks/mine}. A user missing from the index is loaded on the next read; changes
+ * the index cannot follow one by one, like bulk updates, simply drop the users affected.
+ *
+ * <p>Changes are applied after the commit of the current transaction, a rolled back write leaves the
+ * index alone. Each user has a version bumped before every change, a load that raced with a change
+ * is returned but not kept. At most {@code tasks.inbox.max-users} users are indexed.
+ */
+@Component
+public class TaskInbox {
+
+    private final Map<Long, Set<Long>> inboxes = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final int maxUsers;
+
+    public TaskInbox(@Value("${tasks.inbox.max-users:10000}") final int maxUsers) {
+        this.maxUsers = maxUsers;
+    }
+
+    /**
+     * @param userId the executor
+     * @param loader queries the ids of the tasks assigned to the user
+     */
+    public Collection<Long> getTaskIds(final Long userId, final Function<Long, List<Long>> loader) {
+        final Set<Long> cached = inboxes.get(userId);
+        if (cached != null) {
+            return List.copyOf(cached);
+        }
+
+        final long version = version(userId).get();
+        final List<Long> loaded = loader.apply(userId);
+        final Set<Long> inbox = ConcurrentHashMap.newKeySet();
+        inbox.addAll(loaded);
+        if (version(userId).get() == version) {
+            evictOverflow();
+            inboxes.put(userId, inbox);
+            if (version(userId).get() != version) {
+                inboxes.remove(userId, inbox);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Moves the task from the inbox of one executor to another's; either may be null.
+     */
+    public void assigned(final Long taskId, final Long previousExecutorId, final Long executorId) {
+        afterCommit(() -> {
+            if (previousExecutorId != null && !previousExecutorId.equals(executorId)) {
+                change(previousExecutorId, inbox -> inbox.remove(taskId));
+            }
+            if (executorId != null) {
+                change(executorId, inbox -> inbox.add(taskId));
+            }
+        });
+    }
+
+    public void invalidate(final Long... userIds) {
+        afterCommit(() -> {
+            for (Long userId : userIds) {
+                if (userId != null) {
+                    version(userId).incrementAndGet();
+                    inboxes.remove(userId);
+                }
+            }
+        });
+    }
+
+    public void invalidateAll() {
+        afterCommit(() -> {
+            versions.values().forEach(AtomicLong::incrementAndGet);
+            inboxes.clear();
+        });
+    }
+
+    private void change(final Long userId, final Function<Set<Long>, Boolean> change) {
+        version(userId).incrementAndGet();
+        inboxes.computeIfPresent(userId, (id, inbox) -> {
+            change.apply(inbox);
+            return inbox;
+        });
+    }
+
+    private AtomicLong version(final Long userId) {
+        return versions.computeIfAbsent(userId, id -> new AtomicLong());
+    }
+
+    private void evictOverflow() {
+        final Iterator<Long> users = inboxes.keySet().iterator();
+        while (inboxes.size() >= maxUsers && users.hasNext()) {
+            users.next();
+            users.remove();
+        }
+    }
+
+    private static void afterCommit(final Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,107 @@
+package hexlet.code.component;
+
+import hexlet.code.repository.RevokedTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Revoked token ids, kept in the {@code revoked_tokens} table and mirrored in a {@link RevokedTokenFilter}.
+ * A token id that misses the filter is accepted without a query; a hit, which is a revoked token or one
+ * false positive in a thousand, is confirmed against the table.
+ *
+ * <p>Revocations made by other instances arrive through the {@link InvalidationBus}. The filter is also
+ * rebuilt from the table every {@code jwt.revocation.rebuild-interval-ms}, which drops the expired rows and
+ * picks up revocations the bus lost. It is sized for twice the revoked ids, but at least
+ * {@code jwt.revocation.expected-tokens}.
+ */
+@Component
+public class TokenRevocations {
+
+    public static final String REVOKED_TOKENS_CACHE = "revoked-tokens";
+
+    private final RevokedTokenRepository repository;
+    private final InvalidationBus invalidationBus;
+    private final int expectedTokens;
+    private final Object lock = new Object();
+    private final List<String> revokedWhileRebuilding = new ArrayList<>();
+    private volatile RevokedTokenFilter filter;
+    private boolean rebuilding;
+
+    public TokenRevocations(final RevokedTokenRepository repository,
+                            final InvalidationBus invalidationBus,
+                            @Value("${jwt.revocation.expected-tokens:100000}") final int expectedTokens) {
+        this.repository = repository;
+        this.invalidationBus = invalidationBus;
+        this.expectedTokens = expectedTokens;
+        this.filter = new RevokedTokenFilter(expectedTokens);
+        invalidationBus.register(REVOKED_TOKENS_CACHE, tokenId -> {
+            if (InvalidationBus.ALL.equals(tokenId)) {
+                rebuild();
+            } else {
+                added(tokenId);
+            }
+        });
+    }
+
+    public boolean isRevoked(final String tokenId) {
+        return tokenId != null && filter.mightContain(tokenId) && repository.existsById(tokenId);
+    }
+
+    /**
+     * Returns {@code false} if the id was already revoked, so a token can be spent only once.
+     * Must not run inside a transaction: the row has to be committed before the id is added to the filter,
+     * or a rebuild in between could miss it in both the table and the list of recent revocations.
+     */
+    public boolean revoke(final String tokenId, final Date expiresAt) {
+        try {
+            repository.insert(tokenId, expiresAt);
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+        added(tokenId);
+        invalidationBus.publish(REVOKED_TOKENS_CACHE, tokenId);
+        return true;
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-interval-ms:60000}",
+            initialDelayString = "${jwt.revocation.rebuild-interval-ms:60000}")
+    public synchronized void rebuild() {
+        synchronized (lock) {
+            rebuilding = true;
+            revokedWhileRebuilding.clear();
+        }
+        try {
+            repository.deleteExpired(new Date());
+            final List<String> ids = repository.findAllIds();
+            final RevokedTokenFilter rebuilt = new RevokedTokenFilter(Math.max(expectedTokens, ids.size() * 2));
+            ids.forEach(rebuilt::add);
+            synchronized (lock) {
+                // revocations that may have missed the snapshot of the table
+                revokedWhileRebuilding.forEach(rebuilt::add);
+                filter = rebuilt;
+            }
+        } finally {
+            synchronized (lock) {
+                rebuilding = false;
+                revokedWhileRebuilding.clear();
+            }
+        }
+    }
+
+    private void added(final String tokenId) {
+        synchronized (lock) {
+            filter.add(tokenId);
+            if (rebuilding) {
+                revokedWhileRebuilding.add(tokenId);
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package hexlet.code.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Task archival settings. The background archiver moves tasks that have been in one of
+ * {@code statusNames} for more than {@code olderThanDays} days, {@code batchSize} tasks per
+ * transaction with {@code pauseMs} between batches.
+ */
+@ConstructorBinding
+@ConfigurationProperties("tasks.archive")
+public record ArchiveProperties(boolean enabled,
+                                @DefaultValue List<String> statusNames,
+                                @DefaultValue("90") int olderThanDays,
+                                @DefaultValue("200") int batchSize,
+                                @DefaultValue("200") long pauseMs) {
+}
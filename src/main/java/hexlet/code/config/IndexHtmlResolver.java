@@ -0,0 +1,92 @@
+package hexlet.code.config;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.resource.ResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Resolves every client-side route to {@code index.html}, which is read from the classpath once
+ * and then served from memory. Paths under the API base url are never resolved here.
+ */
+public class IndexHtmlResolver implements ResourceResolver {
+
+    private final Resource location;
+    private final String baseApiPath;
+    private volatile InMemoryResource index;
+
+    public IndexHtmlResolver(final Resource location, final String baseApiPath) {
+        this.location = location;
+        this.baseApiPath = baseApiPath.startsWith("/") ? baseApiPath.substring(1) : baseApiPath;
+    }
+
+    @Override
+    public Resource resolveResource(final HttpServletRequest request, final String requestPath,
+                                    final List<? extends Resource> locations, final ResourceResolverChain chain) {
+        if (requestPath.startsWith(baseApiPath) || requestPath.startsWith("/" + baseApiPath)) {
+            return null;
+        }
+        return getIndex();
+    }
+
+    @Override
+    public String resolveUrlPath(final String resourcePath, final List<? extends Resource> locations,
+                                 final ResourceResolverChain chain) {
+        return null;
+    }
+
+    private Resource getIndex() {
+        InMemoryResource result = index;
+        if (result == null) {
+            synchronized (this) {
+                result = index;
+                if (result == null) {
+                    result = load();
+                    index = result;
+                }
+            }
+        }
+        return result.contentLength() > 0 ? result : null;
+    }
+
+    private InMemoryResource load() {
+        if (!location.isReadable()) {
+            return new InMemoryResource(new byte[0], location.getFilename(), 0);
+        }
+        try (InputStream input = location.getInputStream()) {
+            return new InMemoryResource(StreamUtils.copyToByteArray(input), location.getFilename(),
+                    System.currentTimeMillis());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class InMemoryResource extends ByteArrayResource {
+
+        private final String filename;
+        private final long lastModified;
+
+        InMemoryResource(final byte[] content, final String filename, final long lastModified) {
+            super(content, filename);
+            this.filename = filename;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public String getFilename() {
+            return filename;
+        }
+
+        @Override
+        public long lastModified() {
+            return lastModified;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package hexlet.code.config;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.persistence.EntityManager;
+
+@Configuration
+public class QueryDslConfig {
+
+    @Bean
+    public JPAQueryFactory jpaQueryFactory(final EntityManager entityManager) {
+        return new JPAQueryFactory(entityManager);
+    }
+}
@@ -0,0 +1,44 @@
+package hexlet.code.config;
+
+import hexlet.code.component.JWTHelper;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.bind.annotation.RestController;
+
+@Configuration
+public class StartupConfig {
+
+    /**
+     * With the {@code lazy} profile everything is created on first use except the beans every
+     * request goes through: controllers with their services and repositories, and the JWT helper.
+     * Beans with {@code @Scheduled} methods stay eager too, nothing would ever ask for them otherwise.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter hotPathBeans() {
+        return (beanName, beanDefinition, beanType) -> beanType.isAnnotationPresent(RestController.class)
+                || JWTHelper.class.isAssignableFrom(beanType)
+                || hasScheduledMethods(beanType);
+    }
+
+    private static boolean hasScheduledMethods(final Class<?> beanType) {
+        return !MethodIntrospector.selectMethods(beanType, (MethodIntrospector.MetadataLookup<Scheduled>) method ->
+                AnnotatedElementUtils.findMergedAnnotation(method, Scheduled.class)).isEmpty();
+    }
+
+    /**
+     * Used by the image build to run the application once and record the AppCDS archive.
+     */
+    @Bean
+    @ConditionalOnProperty("app.startup.exit-when-ready")
+    public ApplicationListener<ApplicationReadyEvent> exitWhenReady() {
+        return event -> System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
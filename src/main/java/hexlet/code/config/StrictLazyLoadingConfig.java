@@ -0,0 +1,43 @@
+package hexlet.code.config;
+
+import org.hibernate.LazyInitializationException;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.LoadEventListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Fails every lazy load, of a collection or of a proxy, that happens outside a transaction, even when a
+ * session is open to serve it. Hibernate only fails those without a session, so a response mapped after
+ * the service returned would pass unnoticed wherever something keeps the session open, as open-in-view
+ * does. On in the tests.
+ */
+@Configuration
+@ConditionalOnProperty(name = "jpa.strict-lazy-loading")
+public class StrictLazyLoadingConfig {
+
+    public StrictLazyLoadingConfig(final EntityManagerFactory entityManagerFactory) {
+        final EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.prependListeners(EventType.INIT_COLLECTION, (InitializeCollectionEventListener) event ->
+                checkTransaction(event.getCollection().getRole()));
+        registry.prependListeners(EventType.LOAD, (LoadEventListener) (event, loadType) -> {
+            if (loadType == LoadEventListener.IMMEDIATE_LOAD) {
+                checkTransaction(event.getEntityClassName());
+            }
+        });
+    }
+
+    private static void checkTransaction(final String loaded) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new LazyInitializationException("Lazy load of " + loaded + " outside a transaction");
+        }
+    }
+}
@@ -1,17 +1,30 @@
 package hexlet.code.config;
 
-import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.Resource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
-import org.springframework.web.servlet.resource.PathResourceResolver;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
 
 @Configuration
 public class WebConfiguration implements WebMvcConfigurer {
 
+    private static final long ONE_YEAR_SECONDS = TimeUnit.DAYS.toSeconds(365);
+
+    // CacheControl of Spring 5.3 has no immutable() directive yet
+    private static final CacheControl HASHED_ASSETS = new CacheControl() {
+        @Override
+        public String getHeaderValue() {
+            return "max-age=" + ONE_YEAR_SECONDS + ", public, immutable";
+        }
+    };
+
+    private static final CacheControl ROOT_FILES = CacheControl.maxAge(1, TimeUnit.DAYS).cachePublic();
+
     private final String baseApiPath;
 
     public WebConfiguration(@Value("${base-url}") String baseApiPath) {
@@ -20,28 +33,36 @@ public class WebConfiguration implements WebMvcConfigurer {
 
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        // file names under /static carry a content hash, so they never change
         registry
                 .addResourceHandler("/static/**")
-                .addResourceLocations("classpath:/static/static/");
+                .addResourceLocations("classpath:/static/static/")
+                .setCacheControl(HASHED_ASSETS)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver());
+
+        final var indexHtmlResolver = new IndexHtmlResolver(
+                new ClassPathResource("static/index.html"),
+                baseApiPath
+        );
+
+        registry
+                .addResourceHandler("/index.html")
+                .setCacheControl(CacheControl.noCache())
+                .resourceChain(false)
+                .addResolver(indexHtmlResolver);
 
         registry
                 .addResourceHandler("/*.*")
-                .addResourceLocations("classpath:/static/");
+                .addResourceLocations("classpath:/static/")
+                .setCacheControl(ROOT_FILES)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver());
 
         registry
                 .addResourceHandler("/", "/**")
-                .setCachePeriod(0)
-                .addResourceLocations("classpath:/static/index.html")
-                .resourceChain(true)
-                .addResolver(new PathResourceResolver() {
-                    @Override
-                    protected Resource getResource(String resourcePath, Resource location) throws IOException {
-                        if (resourcePath.startsWith(baseApiPath) || resourcePath.startsWith(baseApiPath.substring(1))) {
-                            return null;
-                        }
-
-                        return location.exists() && location.isReadable() ? location : null;
-                    }
-                });
+                .setCacheControl(CacheControl.noCache())
+                .resourceChain(false)
+                .addResolver(indexHtmlResolver);
     }
 }
@@ -2,9 +2,9 @@ package hexlet.code.config.rollbar;
 
 import com.rollbar.notifier.Rollbar;
 import com.rollbar.notifier.config.Config;
+import com.rollbar.notifier.config.ConfigBuilder;
 import com.rollbar.spring.webmvc.RollbarSpringConfigBuilder;
 import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.beans.factory.annotation.Value;
 
@@ -12,7 +12,6 @@ import java.util.Objects;
 
 
 @Configuration
-@ComponentScan({"hexlet.code"})
 public class RollbarConfig {
 
     @Value("${rollbar_token:}")
@@ -21,6 +20,12 @@ public class RollbarConfig {
     @Value("${spring.profiles.active:}")
     private String activeProfile;
 
+    /**
+     * Overrides the Rollbar api, e.g. with the local stand-in {@code /rollbar-stub/api/1/item/}.
+     */
+    @Value("${rollbar.endpoint:}")
+    private String endpoint;
+
     @Bean
     public Rollbar rollbar() {
 
@@ -29,9 +34,12 @@ public class RollbarConfig {
 
     private Config getRollbarConfigs(String accessToken) {
 
-        return RollbarSpringConfigBuilder.withAccessToken(accessToken)
+        final ConfigBuilder builder = RollbarSpringConfigBuilder.withAccessToken(accessToken)
                 .environment("development")
-                .enabled(Objects.equals(activeProfile, "prod"))
-                .build();
+                .enabled(Objects.equals(activeProfile, "prod") || !endpoint.isBlank());
+        if (!endpoint.isBlank()) {
+            builder.endpoint(endpoint);
+        }
+        return builder.build();
     }
 }
@@ -0,0 +1,172 @@
+package hexlet.code.config.security;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Classifies requests as login, public or protected with one walk down a trie of path segments per method,
+ * instead of trying a list of Ant patterns. Patterns are built from literal segments, {@code {name}} for any
+ * one segment and a trailing {@code **} for any number of segments; like {@code AntPathRequestMatcher} the
+ * match is case-sensitive, repeated slashes are ignored and a trailing slash only matches {@code **}.
+ * A more specific route wins: a method over any method, a literal segment over {@code {name}} over {@code **}.
+ *
+ * <p>The result is kept in the {@value #ROUTE_ATTRIBUTE} request attribute, so the security filters and
+ * {@code authorizeRequests} classify a request once. Forwards and error dispatches are classified again.
+ * Routes are added at startup only.
+ */
+public final class RouteTable {
+
+    public static final String ROUTE_ATTRIBUTE = "hexlet.code.route";
+
+    public enum Access {
+        LOGIN,
+        PUBLIC,
+        PROTECTED
+    }
+
+    private static final String ANY_SEGMENT = "**";
+
+    private final Map<HttpMethod, Node> roots = new EnumMap<>(HttpMethod.class);
+    private final Node anyMethod = new Node();
+    private final Access defaultAccess;
+
+    public RouteTable(final Access defaultAccess) {
+        this.defaultAccess = defaultAccess;
+    }
+
+    public RouteTable add(final HttpMethod method, final String pattern, final Access access) {
+        return add(roots.computeIfAbsent(method, m -> new Node()), pattern, access);
+    }
+
+    public RouteTable add(final String pattern, final Access access) {
+        return add(anyMethod, pattern, access);
+    }
+
+    public RequestMatcher matcher(final Access first, final Access... rest) {
+        final Set<Access> accesses = EnumSet.of(first, rest);
+        return request -> accesses.contains(classify(request));
+    }
+
+    public Access classify(final HttpServletRequest request) {
+        final boolean cacheable = request.getDispatcherType() == DispatcherType.REQUEST;
+        if (cacheable && request.getAttribute(ROUTE_ATTRIBUTE) instanceof Access cached) {
+            return cached;
+        }
+        final Access access = classify(request.getMethod(), requestPath(request));
+        if (cacheable) {
+            request.setAttribute(ROUTE_ATTRIBUTE, access);
+        }
+        return access;
+    }
+
+    public Access classify(final String method, final String path) {
+        final boolean trailingSlash = path.length() > 1 && path.charAt(path.length() - 1) == '/';
+        final HttpMethod httpMethod = HttpMethod.resolve(method);
+        final Node root = httpMethod == null ? null : roots.get(httpMethod);
+        Access access = root == null ? null : root.match(path, 0, trailingSlash);
+        if (access == null) {
+            access = anyMethod.match(path, 0, trailingSlash);
+        }
+        return access == null ? defaultAccess : access;
+    }
+
+    private RouteTable add(final Node root, final String pattern, final Access access) {
+        Node node = root;
+        final String[] segments = pattern.split("/");
+        for (int i = 0; i < segments.length; i++) {
+            final String segment = segments[i];
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (ANY_SEGMENT.equals(segment)) {
+                if (i != segments.length - 1) {
+                    throw new IllegalArgumentException("** must be the last segment: " + pattern);
+                }
+                node.anySegments = access;
+                return this;
+            }
+            node = segment.startsWith("{") && segment.endsWith("}") ? node.wildcard() : node.literal(segment);
+        }
+        node.access = access;
+        return this;
+    }
+
+    /**
+     * The path the Ant matchers see: the servlet path followed by the path info.
+     */
+    private static String requestPath(final HttpServletRequest request) {
+        final String servletPath = request.getServletPath();
+        final String pathInfo = request.getPathInfo();
+        if (pathInfo == null) {
+            return servletPath == null ? "" : servletPath;
+        }
+        return servletPath == null || servletPath.isEmpty() ? pathInfo : servletPath + pathInfo;
+    }
+
+    private static final class Node {
+
+        private final List<String> literals = new ArrayList<>();
+        private final List<Node> children = new ArrayList<>();
+        private Node wildcard;
+        private Access access;
+        private Access anySegments;
+
+        Node literal(final String segment) {
+            final int index = literals.indexOf(segment);
+            if (index >= 0) {
+                return children.get(index);
+            }
+            final Node child = new Node();
+            literals.add(segment);
+            children.add(child);
+            return child;
+        }
+
+        Node wildcard() {
+            if (wildcard == null) {
+                wildcard = new Node();
+            }
+            return wildcard;
+        }
+
+        Access match(final String path, final int from, final boolean trailingSlash) {
+            int start = from;
+            while (start < path.length() && path.charAt(start) == '/') {
+                start++;
+            }
+            if (start == path.length()) {
+                return access != null && !trailingSlash ? access : anySegments;
+            }
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            final int length = end - start;
+            for (int i = 0; i < literals.size(); i++) {
+                final String literal = literals.get(i);
+                if (literal.length() == length && path.regionMatches(start, literal, 0, length)) {
+                    final Access matched = children.get(i).match(path, end, trailingSlash);
+                    if (matched != null) {
+                        return matched;
+                    }
+                }
+            }
+            if (wildcard != null) {
+                final Access matched = wildcard.match(path, end, trailingSlash);
+                if (matched != null) {
+                    return matched;
+                }
+            }
+            return anySegments;
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package hexlet.code.config.security;
 
 import hexlet.code.component.JWTHelper;
+import hexlet.code.component.RateLimiter;
+import hexlet.code.component.TokenRevocations;
+import hexlet.code.config.security.RouteTable.Access;
+import hexlet.code.config.sql.SlowQueryEndpoint;
 import hexlet.code.filter.JWTAuthenticationFilter;
 import hexlet.code.filter.JWTAuthorizationFilter;
+import hexlet.code.filter.RateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
@@ -15,13 +21,13 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
-import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
-import org.springframework.security.web.util.matcher.NegatedRequestMatcher;
-import org.springframework.security.web.util.matcher.OrRequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 
 import java.util.List;
+import java.util.Set;
 
+import static hexlet.code.controller.TokenController.REFRESH;
+import static hexlet.code.controller.TokenController.TOKEN_CONTROLLER_PATH;
 import static hexlet.code.controller.UserController.ID;
 import static hexlet.code.controller.UserController.USER_CONTROLLER_PATH;
 import static org.springframework.http.HttpMethod.GET;
@@ -34,28 +40,44 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
     public static final String LOGIN = "/login";
 
+    public static final String ADMIN = "ADMIN";
+
     public static final List<GrantedAuthority> DEFAULT_AUTHORITIES = List.of(new SimpleGrantedAuthority("USER"));
 
+    public static final List<GrantedAuthority> ADMIN_AUTHORITIES =
+            List.of(new SimpleGrantedAuthority("USER"), new SimpleGrantedAuthority(ADMIN));
+
     private final RequestMatcher publicUrls;
     private final RequestMatcher loginRequest;
     private final UserDetailsService userDetailsService;
     private final PasswordEncoder passwordEncoder;
     private final JWTHelper jwtHelper;
+    private final TokenRevocations tokenRevocations;
+    private final RateLimitFilter rateLimitFilter;
+    private final Set<String> admins;
 
     public SecurityConfig(@Value("${base-url}") final String baseUrl,
                           final UserDetailsService userDetailsService,
-                          final PasswordEncoder passwordEncoder, final JWTHelper jwtHelper) {
-        this.loginRequest = new AntPathRequestMatcher(baseUrl + LOGIN, POST.toString());
-        this.publicUrls = new OrRequestMatcher(
-                loginRequest,
-                new AntPathRequestMatcher(baseUrl + USER_CONTROLLER_PATH, POST.toString()),
-                new AntPathRequestMatcher(baseUrl + USER_CONTROLLER_PATH, GET.toString()),
-                new AntPathRequestMatcher(baseUrl + USER_CONTROLLER_PATH + ID, GET.toString()),
-                new NegatedRequestMatcher(new AntPathRequestMatcher(baseUrl + "/**"))
-        );
+                          final PasswordEncoder passwordEncoder, final JWTHelper jwtHelper,
+                          final TokenRevocations tokenRevocations,
+                          final RateLimiter rateLimiter, final MeterRegistry meterRegistry,
+                          @Value("${security.admins:}") final List<String> admins) {
+        final RouteTable routes = new RouteTable(Access.PUBLIC)
+                .add(POST, baseUrl + LOGIN, Access.LOGIN)
+                .add(POST, baseUrl + TOKEN_CONTROLLER_PATH + REFRESH, Access.PUBLIC)
+                .add(POST, baseUrl + USER_CONTROLLER_PATH, Access.PUBLIC)
+                .add(GET, baseUrl + USER_CONTROLLER_PATH, Access.PUBLIC)
+                .add(GET, baseUrl + USER_CONTROLLER_PATH + ID, Access.PUBLIC)
+                .add(baseUrl + "/**", Access.PROTECTED)
+                .add("/actuator/" + SlowQueryEndpoint.ID, Access.PROTECTED);
+        this.loginRequest = routes.matcher(Access.LOGIN);
+        this.publicUrls = routes.matcher(Access.LOGIN, Access.PUBLIC);
         this.userDetailsService = userDetailsService;
         this.passwordEncoder = passwordEncoder;
         this.jwtHelper = jwtHelper;
+        this.tokenRevocations = tokenRevocations;
+        this.rateLimitFilter = new RateLimitFilter(rateLimiter, baseUrl, meterRegistry);
+        this.admins = Set.copyOf(admins);
     }
 
     @Override
@@ -75,7 +97,9 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
         final var authorizationFilter = new JWTAuthorizationFilter(
                 publicUrls,
-                jwtHelper
+                jwtHelper,
+                tokenRevocations,
+                admins
         );
 
         http.csrf().disable()
@@ -85,6 +109,8 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .and()
                 .addFilter(authenticationFilter)
                 .addFilterBefore(authorizationFilter, UsernamePasswordAuthenticationFilter.class)
+                // after the authorization filter, which runs just before the login filter
+                .addFilterAfter(rateLimitFilter, UsernamePasswordAuthenticationFilter.class)
                 .sessionManagement().disable()
                 .formLogin().disable()
                 .httpBasic().disable()
@@ -0,0 +1,28 @@
+package hexlet.code.config.sql;
+
+import hexlet.code.component.SqlTracker;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/slowqueries}: the slowest recent statements of each route, slowest first.
+ */
+@Endpoint(id = SlowQueryEndpoint.ID)
+public class SlowQueryEndpoint {
+
+    public static final String ID = "slowqueries";
+
+    private final SqlTracker sqlTracker;
+
+    public SlowQueryEndpoint(final SqlTracker sqlTracker) {
+        this.sqlTracker = sqlTracker;
+    }
+
+    @ReadOperation
+    public Map<String, List<SqlTracker.SlowStatement>> slowest() {
+        return sqlTracker.slowest();
+    }
+}
@@ -0,0 +1,48 @@
+package hexlet.code.config.sql;
+
+import hexlet.code.component.SqlTracker;
+import hexlet.code.filter.RequestTracingFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(name = "sql.tracing.enabled", matchIfMissing = true)
+public class SqlTracingConfig {
+
+    /**
+     * Static, so wrapping the data source does not initialize this configuration early.
+     */
+    @Bean
+    public static BeanPostProcessor tracingDataSourcePostProcessor(final ObjectProvider<SqlTracker> sqlTracker) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof TracingDataSource)) {
+                    return new TracingDataSource(dataSource, sqlTracker);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestTracingFilter> requestTracingFilter(final SqlTracker sqlTracker) {
+        final FilterRegistrationBean<RequestTracingFilter> registration =
+                new FilterRegistrationBean<>(new RequestTracingFilter(sqlTracker));
+        // ahead of the security filters
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    @Bean
+    public SlowQueryEndpoint slowQueryEndpoint(final SqlTracker sqlTracker) {
+        return new SlowQueryEndpoint(sqlTracker);
+    }
+}
@@ -0,0 +1,188 @@
+package hexlet.code.config.sql;
+
+import hexlet.code.component.SqlTracker;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Reports every statement run through the pool to the {@link SqlTracker}: the repositories, QueryDSL and
+ * Liquibase all end up here, whatever built the SQL. Connections, statements and result sets are wrapped
+ * in proxies; a statement is timed from the call of an {@code execute} method to its return, and a row
+ * is counted for each {@link ResultSet#next()} that moves to one, and a connection is held from
+ * {@code getConnection} to its first {@code close}.
+ */
+public class TracingDataSource extends DelegatingDataSource {
+
+    private static final String BATCH = "(batch)";
+
+    private final ObjectProvider<SqlTracker> trackerProvider;
+    private volatile SqlTracker tracker;
+
+    public TracingDataSource(final DataSource dataSource, final ObjectProvider<SqlTracker> trackerProvider) {
+        super(dataSource);
+        this.trackerProvider = trackerProvider;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(Connection.class, new ConnectionHandler(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        return wrap(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+    }
+
+    private SqlTracker tracker() {
+        SqlTracker resolved = tracker;
+        if (resolved == null) {
+            resolved = trackerProvider.getObject();
+            tracker = resolved;
+        }
+        return resolved;
+    }
+
+    private static <T> T wrap(final Class<T> type, final InvocationHandler handler) {
+        final ClassLoader classLoader = TracingDataSource.class.getClassLoader();
+        return type.cast(Proxy.newProxyInstance(classLoader, new Class<?>[]{type}, handler));
+    }
+
+    /**
+     * Forwards to the target; a proxy is only equal to itself, so that it works as a key of the maps
+     * Hibernate keeps its statements and result sets in.
+     */
+    private abstract static class Handler implements InvocationHandler {
+
+        private final Object target;
+
+        Handler(final Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public final Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return invoke(proxy, method, args, target);
+            }
+        }
+
+        abstract Object invoke(Object proxy, Method method, Object[] args, Object target) throws Throwable;
+
+        static Object forward(final Object target, final Method method, final Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private final class ConnectionHandler extends Handler {
+
+        private final long acquiredAt = System.nanoTime();
+        private boolean closed;
+
+        ConnectionHandler(final Connection connection) {
+            super(connection);
+        }
+
+        @Override
+        Object invoke(final Object proxy, final Method method, final Object[] args, final Object target)
+                throws Throwable {
+            if ("close".equals(method.getName()) && !closed) {
+                closed = true;
+                try {
+                    return forward(target, method, args);
+                } finally {
+                    tracker().connectionReleased(System.nanoTime() - acquiredAt);
+                }
+            }
+            final Object result = forward(target, method, args);
+            if (result instanceof Statement statement) {
+                // prepareStatement and prepareCall take the sql first, createStatement takes it on execute
+                final String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                return wrap(method.getReturnType(), new StatementHandler(statement, sql, proxy));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler extends Handler {
+
+        private final String preparedSql;
+        private final Object connection;
+
+        StatementHandler(final Statement statement, final String preparedSql, final Object connection) {
+            super(statement);
+            this.preparedSql = preparedSql;
+            this.connection = connection;
+        }
+
+        @Override
+        Object invoke(final Object proxy, final Method method, final Object[] args, final Object target)
+                throws Throwable {
+            final Object result;
+            if (method.getName().startsWith("execute")) {
+                final long start = System.nanoTime();
+                try {
+                    result = forward(target, method, args);
+                } finally {
+                    tracker().executed(sql(args), System.nanoTime() - start);
+                }
+            } else if ("getConnection".equals(method.getName())) {
+                return connection;
+            } else {
+                result = forward(target, method, args);
+            }
+            if (result instanceof ResultSet resultSet) {
+                return wrap(ResultSet.class, new ResultSetHandler(resultSet, proxy));
+            }
+            return result;
+        }
+
+        private String sql(final Object[] args) {
+            if (preparedSql != null) {
+                return preparedSql;
+            }
+            return args != null && args.length > 0 && args[0] instanceof String sql ? sql : BATCH;
+        }
+    }
+
+    private final class ResultSetHandler extends Handler {
+
+        private final Object statement;
+
+        ResultSetHandler(final ResultSet resultSet, final Object statement) {
+            super(resultSet);
+            this.statement = statement;
+        }
+
+        @Override
+        Object invoke(final Object proxy, final Method method, final Object[] args, final Object target)
+                throws Throwable {
+            if ("getStatement".equals(method.getName())) {
+                return statement;
+            }
+            final Object result = forward(target, method, args);
+            if (Boolean.TRUE.equals(result) && "next".equals(method.getName())) {
+                tracker().fetched();
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package hexlet.code.controller;
+
+import hexlet.code.dto.BatchRequestDto;
+import hexlet.code.dto.BatchResponse;
+import hexlet.code.service.BatchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.AllArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.Valid;
+
+import static hexlet.code.controller.BatchController.BATCH_CONTROLLER_PATH;
+
+@AllArgsConstructor
+@RestController
+@RequestMapping("${base-url}" + BATCH_CONTROLLER_PATH)
+public class BatchController {
+
+    public static final String BATCH_CONTROLLER_PATH = "/batch";
+
+    private final BatchService batchService;
+
+    @Operation(summary = "Execute several requests at once, the responses are returned in the same order")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The requests are executed, each has its own status",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BatchResponse.class))}),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content)})
+    @PostMapping
+    public BatchResponse execute(@RequestBody @Valid final BatchRequestDto dto,
+                                 final HttpServletRequest request,
+                                 final HttpServletResponse response) {
+        return batchService.execute(dto, request, response);
+    }
+}
@@ -1,8 +1,9 @@
 package hexlet.code.controller;
 
 import hexlet.code.dto.LabelDto;
-import hexlet.code.model.Label;
-import hexlet.code.repository.LabelRepository;
+import hexlet.code.dto.LabelResponse;
+import hexlet.code.dto.LabelSuggestion;
+import hexlet.code.repository.ProjectionRepository;
 import hexlet.code.service.LabelService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -18,11 +19,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.validation.Valid;
 import java.util.List;
+import java.util.Set;
 
 import static hexlet.code.controller.LabelController.LABEL_CONTROLLER_PATH;
 import static hexlet.code.controller.UserController.ID;
@@ -34,39 +37,53 @@ import static org.springframework.http.HttpStatus.CREATED;
 public class LabelController {
 
     public static final String LABEL_CONTROLLER_PATH = "/labels";
+    public static final String SUGGEST = "/suggest";
 
     private final LabelService labelService;
-    private final LabelRepository labelRepository;
+    private final ProjectionRepository projectionRepository;
 
     @Operation(summary = "Create a label")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "The label is created",
                     content = {@Content(mediaType = "application/json",
-                            schema = @Schema(implementation = Label.class))})})
+                            schema = @Schema(implementation = LabelResponse.class))})})
     @PostMapping
     @ResponseStatus(CREATED)
-    public Label createLabel(@RequestBody @Valid final LabelDto dto) {
+    public LabelResponse createLabel(@RequestBody @Valid final LabelDto dto) {
         return labelService.createLabel(dto);
     }
 
     @Operation(summary = "Get all labels")
     @ApiResponse(responseCode = "200", description = "The labels are found",
-            content = @Content(schema = @Schema(implementation = Label.class)))
+            content = @Content(schema = @Schema(implementation = LabelResponse.class)))
     @GetMapping
-    public List<Label> getAll() {
-        return labelRepository.findAll()
-                .stream()
-                .toList();
+    public List<?> getAll(@Parameter(description = "comma separated fields to return, e.g. id,name")
+                          @RequestParam(required = false) final Set<String> fields) {
+        if (fields != null && !fields.isEmpty()) {
+            return projectionRepository.findLabels(fields);
+        }
+        return labelService.getLabels();
+    }
+
+    @Operation(summary = "Suggest labels by the beginning of their name, the most used first")
+    @ApiResponse(responseCode = "200", description = "The labels are found",
+            content = @Content(schema = @Schema(implementation = LabelSuggestion.class)))
+    @GetMapping(SUGGEST)
+    public List<LabelSuggestion> suggest(@Parameter(description = "beginning of the name, in any case")
+                                         @RequestParam(defaultValue = "") final String prefix,
+                                         @Parameter(description = "how many labels to return, at most 20")
+                                         @RequestParam(defaultValue = "10") final int limit) {
+        return labelService.suggestLabels(prefix, limit);
     }
 
     @Operation(summary = "Get a label by id")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "The label is found",
                     content = {@Content(mediaType = "application/json",
-                            schema = @Schema(implementation = Label.class))})})
+                            schema = @Schema(implementation = LabelResponse.class))})})
     @GetMapping(ID)
-    public Label getLabelById(@Parameter(description = "id of label to be searched")
-                                  @PathVariable final Long id) {
+    public LabelResponse getLabelById(@Parameter(description = "id of label to be searched")
+                                      @PathVariable final Long id) {
         return labelService.getLabel(id);
     }
 
@@ -74,12 +91,12 @@ public class LabelController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "The label is updated",
                     content = {@Content(mediaType = "application/json",
-                            schema = @Schema(implementation = Label.class))}),
+                            schema = @Schema(implementation = LabelResponse.class))}),
             @ApiResponse(responseCode = "422", description = "Invalid request",
                     content = @Content)})
     @PutMapping(ID)
-    public Label update(@Parameter(description = "id of label to be updated")
-                            @PathVariable final Long id, @RequestBody @Valid final LabelDto dto) {
+    public LabelResponse update(@Parameter(description = "id of label to be updated")
+                                @PathVariable final Long id, @RequestBody @Valid final LabelDto dto) {
         return labelService.updateLabel(id, dto);
     }
 
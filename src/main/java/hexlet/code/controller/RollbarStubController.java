@@ -0,0 +1,61 @@
+package hexlet.code.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static hexlet.code.controller.RollbarStubController.ROLLBAR_STUB_PATH;
+
+/**
+ * Local stand-in for the Rollbar item api, to see what is reported without network access.
+ * Enabled with {@code rollbar.stub.enabled=true} in the {@code test} profile only, since the Rollbar client
+ * posts without a token and the path is open to everyone; point {@code rollbar.endpoint} at
+ * {@code http://localhost:<port>/rollbar-stub/api/1/item/}. Keeps the last {@value #MAX_ITEMS} items.
+ */
+@RestController
+@Profile("test")
+@ConditionalOnProperty(name = "rollbar.stub.enabled", havingValue = "true")
+@RequestMapping(ROLLBAR_STUB_PATH)
+public class RollbarStubController {
+
+    public static final String ROLLBAR_STUB_PATH = "/rollbar-stub";
+    public static final String ITEM = "/api/1/item/";
+
+    private static final int MAX_ITEMS = 100;
+
+    private final Deque<JsonNode> items = new ConcurrentLinkedDeque<>();
+    private final AtomicLong received = new AtomicLong();
+
+    @Operation(summary = "Accept an item the way the Rollbar api does")
+    @ApiResponse(responseCode = "200", description = "The item is accepted")
+    @PostMapping(ITEM)
+    public Map<String, Object> acceptItem(@RequestBody final JsonNode item) {
+        received.incrementAndGet();
+        items.addFirst(item);
+        while (items.size() > MAX_ITEMS) {
+            items.pollLast();
+        }
+        return Map.of("err", 0, "result", Map.of("uuid", UUID.randomUUID().toString()));
+    }
+
+    @Operation(summary = "Get the number of received items and the latest ones")
+    @ApiResponse(responseCode = "200", description = "The items are found")
+    @GetMapping(ITEM)
+    public Map<String, Object> getItems() {
+        return Map.of("received", received.get(), "items", List.copyOf(items));
+    }
+}
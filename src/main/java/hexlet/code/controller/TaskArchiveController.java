@@ -0,0 +1,118 @@
+package hexlet.code.controller;
+
+import hexlet.code.dto.ArchivePolicyDto;
+import hexlet.code.dto.ArchivedTaskResponse;
+import hexlet.code.dto.TaskArchiveResponse;
+import hexlet.code.dto.TaskResponse;
+import hexlet.code.service.TaskArchiveService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.AllArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+import java.util.List;
+
+import static hexlet.code.controller.TaskArchiveController.ARCHIVE_CONTROLLER_PATH;
+import static hexlet.code.controller.UserController.ID;
+import static org.springframework.http.HttpStatus.ACCEPTED;
+
+@AllArgsConstructor
+@RestController
+@RequestMapping("${base-url}" + ARCHIVE_CONTROLLER_PATH)
+public class TaskArchiveController {
+
+    public static final String ARCHIVE_CONTROLLER_PATH = "/archived-tasks";
+    public static final String RESTORE = "/restore";
+    public static final String JOBS = "/jobs";
+    public static final String JOB_ID = "/{jobId}";
+
+    private static final String ONLY_ADMIN = "hasAuthority('ADMIN')";
+
+    private final TaskArchiveService taskArchiveService;
+
+    @Operation(summary = "Start archiving the tasks that have been in a status for longer than the given days")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "The archive job is started",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = TaskArchiveResponse.class))}),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content),
+            @ApiResponse(responseCode = "403", description = "The caller is not an admin",
+                    content = @Content)})
+    @PostMapping
+    @ResponseStatus(ACCEPTED)
+    @PreAuthorize(ONLY_ADMIN)
+    public TaskArchiveResponse archiveTasks(@RequestBody @Valid final ArchivePolicyDto dto) {
+        return taskArchiveService.archiveTasks(dto);
+    }
+
+    @Operation(summary = "Get the progress of an archive job")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The archive job is found",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = TaskArchiveResponse.class))}),
+            @ApiResponse(responseCode = "403", description = "The caller is not an admin",
+                    content = @Content),
+            @ApiResponse(responseCode = "404", description = "The archive job is not found",
+                    content = @Content)})
+    @GetMapping(JOBS + JOB_ID)
+    @PreAuthorize(ONLY_ADMIN)
+    public TaskArchiveResponse getArchiveJob(@Parameter(description = "id of the archive job")
+                                             @PathVariable final String jobId) {
+        return taskArchiveService.getArchiveJob(jobId);
+    }
+
+    @Operation(summary = "Get archived tasks")
+    @ApiResponse(responseCode = "200", description = "The archived tasks are found",
+            content = @Content(schema = @Schema(implementation = ArchivedTaskResponse.class)))
+    @GetMapping
+    public List<ArchivedTaskResponse> getAll(@Parameter(description = "zero-based page number")
+                                             @RequestParam(defaultValue = "0") final int page,
+                                             @Parameter(description = "page size, at most 1000")
+                                             @RequestParam(defaultValue = "100") final int size) {
+        return taskArchiveService.getArchivedTasks(page, size);
+    }
+
+    @Operation(summary = "Get an archived task by id")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The archived task is found",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ArchivedTaskResponse.class))}),
+            @ApiResponse(responseCode = "404", description = "The archived task is not found",
+                    content = @Content)})
+    @GetMapping(ID)
+    public ArchivedTaskResponse getArchivedTaskById(@Parameter(description = "id of archived task to be searched")
+                                                    @PathVariable final Long id) {
+        return taskArchiveService.getArchivedTask(id);
+    }
+
+    @Operation(summary = "Move an archived task back to the tasks, the caller's own unless an admin")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The task is restored",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = TaskResponse.class))}),
+            @ApiResponse(responseCode = "403", description = "The caller is neither the author nor an admin",
+                    content = @Content),
+            @ApiResponse(responseCode = "404", description = "The archived task is not found",
+                    content = @Content),
+            @ApiResponse(responseCode = "422", description = "A task with the same name exists",
+                    content = @Content)})
+    @PostMapping(ID + RESTORE)
+    public TaskResponse restore(@Parameter(description = "id of archived task to be restored")
+                                @PathVariable final Long id) {
+        return taskArchiveService.restoreTask(id);
+    }
+}
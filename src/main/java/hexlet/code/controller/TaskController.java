@@ -1,10 +1,19 @@
 package hexlet.code.controller;
 
 import com.querydsl.core.types.Predicate;
+import hexlet.code.component.IdempotencyStore;
+import hexlet.code.dto.TaskBulkUpdateResponse;
+import hexlet.code.dto.TaskCountResponse;
 import hexlet.code.dto.TaskDto;
+import hexlet.code.dto.TaskImportResponse;
+import hexlet.code.dto.TaskReassignmentDto;
+import hexlet.code.dto.TaskResponse;
+import hexlet.code.dto.TaskStatusMoveDto;
 import hexlet.code.model.Task;
-import hexlet.code.repository.TaskRepository;
+import hexlet.code.repository.ProjectionRepository;
+import hexlet.code.repository.TaskOrder;
 import hexlet.code.service.TaskService;
+import hexlet.code.service.TaskTransferService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,6 +21,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.querydsl.binding.QuerydslPredicate;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -20,60 +30,167 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.security.Principal;
+import java.util.List;
+import java.util.Set;
 
+import static hexlet.code.component.IdempotencyStore.IDEMPOTENCY_KEY;
 import static hexlet.code.controller.TaskController.TASK_CONTROLLER_PATH;
 import static hexlet.code.controller.UserController.ID;
 import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 
 @AllArgsConstructor
 @RestController
 @RequestMapping("${base-url}" + TASK_CONTROLLER_PATH)
 public class TaskController {
     public static final String TASK_CONTROLLER_PATH = "/tasks";
+    public static final String EXPORT = "/export";
+    public static final String IMPORT = "/import";
+    public static final String REASSIGN = "/reassign";
+    public static final String MOVE_STATUS = "/move-status";
+    public static final String MINE = "/mine";
+    public static final String COUNT = "/count";
+    public static final String TOTAL_COUNT = "X-Total-Count";
 
     private static final String ONLY_OWNER_BY_ID = """
             @taskRepository.findById(#id).get().getAuthor().getEmail() == authentication.getName()
         """;
 
+    private static final String ONLY_FROM_USER_OR_ADMIN = """
+            hasAuthority('ADMIN')
+            or @userRepository.findByEmail(authentication.getName()).get().getId() == #dto.fromUserId
+        """;
+
     private final TaskService taskService;
-    private final TaskRepository taskRepository;
+    private final ProjectionRepository projectionRepository;
+    private final TaskTransferService taskTransferService;
+    private final IdempotencyStore idempotencyStore;
 
     @Operation(summary = "Create a task")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "The task is created",
                     content = {@Content(mediaType = "application/json",
-                            schema = @Schema(implementation = Task.class))}),
+                            schema = @Schema(implementation = TaskResponse.class))}),
             @ApiResponse(responseCode = "400", description = "Bad request",
                     content = @Content)})
     @PostMapping
     @ResponseStatus(CREATED)
-    public Task createTask(@RequestBody @Valid final TaskDto dto) {
-        return taskService.createTask(dto);
+    public TaskResponse createTask(@RequestBody @Valid final TaskDto dto,
+                                   @Parameter(description = "repeated requests with the same key are created once")
+                                   @RequestHeader(value = IDEMPOTENCY_KEY, required = false) final String key,
+                                   final Principal principal) {
+        // keys are per user, the same key and body from another user creates another task
+        return idempotencyStore.execute(TASK_CONTROLLER_PATH, principal.getName(), key, dto,
+                () -> taskService.createTask(dto));
     }
 
     @Operation(summary = "Get all tasks")
     @ApiResponse(responseCode = "200", description = "The tasks are found",
-            content = @Content(schema = @Schema(implementation = Task.class)))
+            content = @Content(schema = @Schema(implementation = TaskResponse.class)))
     @GetMapping
-    public Iterable<Task> getAll(@QuerydslPredicate Predicate predicate) {
-        return predicate == null ? taskRepository.findAll() : taskRepository.findAll(predicate);
+    public Iterable<?> getAll(@QuerydslPredicate(root = Task.class) Predicate predicate,
+                              @Parameter(description = "comma separated fields to return, e.g. id,name,taskStatus.id")
+                              @RequestParam(required = false) final Set<String> fields,
+                              @Parameter(description = "sort by id or createdAt, e.g. createdAt,desc")
+                              final Sort sort) {
+        final TaskOrder order = TaskOrder.of(sort);
+        if (fields != null && !fields.isEmpty()) {
+            return projectionRepository.findTasks(predicate, fields, order);
+        }
+        return taskService.getTasks(predicate, order);
+    }
+
+    @Operation(summary = "Count the tasks of a filter")
+    @ApiResponse(responseCode = "200", description = "The tasks are counted, the count is also in X-Total-Count",
+            content = @Content(schema = @Schema(implementation = TaskCountResponse.class)))
+    @GetMapping(COUNT)
+    public TaskCountResponse countTasks(@QuerydslPredicate(root = Task.class) Predicate predicate,
+                                        final HttpServletResponse response) {
+        final TaskCountResponse count = taskService.countTasks(predicate);
+        response.setHeader(TOTAL_COUNT, Long.toString(count.totalCount()));
+        return count;
+    }
+
+    @Operation(summary = "Export all tasks as NDJSON, one task per line")
+    @ApiResponse(responseCode = "200", description = "The tasks are exported")
+    @GetMapping(value = EXPORT, produces = APPLICATION_NDJSON_VALUE)
+    public void exportTasks(final HttpServletResponse response) throws IOException {
+        response.setContentType(APPLICATION_NDJSON_VALUE);
+        taskTransferService.exportTasks(response.getOutputStream());
+    }
+
+    @Operation(summary = "Import tasks from NDJSON in the export format")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The tasks are imported"),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content),
+            @ApiResponse(responseCode = "422", description = "Data integrity violation",
+                    content = @Content)})
+    @PostMapping(value = IMPORT, consumes = APPLICATION_NDJSON_VALUE)
+    public TaskImportResponse importTasks(final HttpServletRequest request) throws IOException {
+        return taskTransferService.importTasks(request.getInputStream());
+    }
+
+    @Operation(summary = "Move all tasks of a user as author or executor to another user")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The tasks are reassigned",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = TaskBulkUpdateResponse.class))}),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content),
+            @ApiResponse(responseCode = "403", description = "The tasks are not the caller's",
+                    content = @Content),
+            @ApiResponse(responseCode = "404", description = "A user is not found",
+                    content = @Content)})
+    @PostMapping(REASSIGN)
+    @PreAuthorize(ONLY_FROM_USER_OR_ADMIN)
+    public TaskBulkUpdateResponse reassignTasks(@RequestBody @Valid final TaskReassignmentDto dto) {
+        return taskService.reassignTasks(dto);
+    }
+
+    @Operation(summary = "Move the tasks in one status to another status, the caller's own unless an admin")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The tasks are moved",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = TaskBulkUpdateResponse.class))}),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content),
+            @ApiResponse(responseCode = "404", description = "A task status is not found",
+                    content = @Content)})
+    @PostMapping(MOVE_STATUS)
+    public TaskBulkUpdateResponse moveTasks(@RequestBody @Valid final TaskStatusMoveDto dto) {
+        return taskService.moveTasks(dto);
+    }
+
+    @Operation(summary = "Get the tasks assigned to the current user")
+    @ApiResponse(responseCode = "200", description = "The tasks are found",
+            content = @Content(schema = @Schema(implementation = TaskResponse.class)))
+    @GetMapping(MINE)
+    public List<TaskResponse> getMyTasks() {
+        return taskService.getMyTasks();
     }
 
     @Operation(summary = "Get a task by id")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "The task  is found",
                     content = {@Content(mediaType = "application/json",
-                            schema = @Schema(implementation = Task.class))}),
+                            schema = @Schema(implementation = TaskResponse.class))}),
             @ApiResponse(responseCode = "404", description = "The task is not found",
                     content = @Content)})
     @GetMapping(ID)
-    public Task getTaskById(@Parameter(description = "id of task to be searched")
-                                @PathVariable final Long id) {
+    public TaskResponse getTaskById(@Parameter(description = "id of task to be searched")
+                                    @PathVariable final Long id) {
         return taskService.getTask(id);
     }
 
@@ -81,12 +198,12 @@ public class TaskController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "The task  is updated",
                     content = {@Content(mediaType = "application/json",
-                            schema = @Schema(implementation = Task.class))}),
+                            schema = @Schema(implementation = TaskResponse.class))}),
             @ApiResponse(responseCode = "400", description = "Bad request",
                     content = @Content)})
     @PutMapping(ID)
-    public Task update(@Parameter(description = "id of task to be updated")
-                           @PathVariable final Long id, @RequestBody @Valid final TaskDto dto) {
+    public TaskResponse update(@Parameter(description = "id of task to be updated")
+                               @PathVariable final Long id, @RequestBody @Valid final TaskDto dto) {
         return taskService.updateTask(id, dto);
     }
 
@@ -1,8 +1,8 @@
 package hexlet.code.controller;
 
 import hexlet.code.dto.TaskStatusDto;
-import hexlet.code.model.TaskStatus;
-import hexlet.code.repository.TaskStatusRepository;
+import hexlet.code.dto.TaskStatusResponse;
+import hexlet.code.repository.ProjectionRepository;
 import hexlet.code.service.TaskStatusService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -19,12 +19,14 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.validation.Valid;
 
 import java.util.List;
+import java.util.Set;
 
 import static hexlet.code.controller.TaskStatusController.TASK_STATUS_CONTROLLER_PATH;
 import static hexlet.code.controller.UserController.ID;
@@ -37,40 +39,42 @@ public class TaskStatusController {
     public static final String TASK_STATUS_CONTROLLER_PATH = "/statuses";
 
     private final TaskStatusService taskStatusService;
-    private final TaskStatusRepository taskStatusRepository;
+    private final ProjectionRepository projectionRepository;
 
     @Operation(summary = "Create new task status")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "The task status is created",
                     content = {@Content(mediaType = "application/json",
-                            schema = @Schema(implementation = TaskStatus.class))})})
+                            schema = @Schema(implementation = TaskStatusResponse.class))})})
     @PostMapping
     @ResponseStatus(CREATED)
-    public TaskStatus createTaskStatus(@RequestBody @Valid final TaskStatusDto dto) {
+    public TaskStatusResponse createTaskStatus(@RequestBody @Valid final TaskStatusDto dto) {
         return taskStatusService.createTaskStatus(dto);
     }
 
 
     @Operation(summary = "Get all task statuses")
     @ApiResponse(responseCode = "200", description = "The task statuses are found",
-            content = @Content(schema = @Schema(implementation = TaskStatus.class)))
+            content = @Content(schema = @Schema(implementation = TaskStatusResponse.class)))
     @GetMapping
-    public List<TaskStatus> getAll() {
-        return taskStatusRepository.findAll()
-                .stream()
-                .toList();
+    public List<?> getAll(@Parameter(description = "comma separated fields to return, e.g. id,name")
+                          @RequestParam(required = false) final Set<String> fields) {
+        if (fields != null && !fields.isEmpty()) {
+            return projectionRepository.findTaskStatuses(fields);
+        }
+        return taskStatusService.getTaskStatuses();
     }
 
     @Operation(summary = "Get a task status by id")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "The task status is found",
                     content = {@Content(mediaType = "application/json",
-                            schema = @Schema(implementation = TaskStatus.class))}),
+                            schema = @Schema(implementation = TaskStatusResponse.class))}),
             @ApiResponse(responseCode = "404", description = "The task status is not found",
                     content = @Content)})
     @GetMapping(ID)
-    public TaskStatus getTaskStatusById(@Parameter(description = "id of task status to be searched")
-                                            @PathVariable final Long id) {
+    public TaskStatusResponse getTaskStatusById(@Parameter(description = "id of task status to be searched")
+                                                @PathVariable final Long id) {
         return taskStatusService.getTaskStatus(id);
     }
 
@@ -78,14 +82,14 @@ public class TaskStatusController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "The task status is updated",
                     content = {@Content(mediaType = "application/json",
-                            schema = @Schema(implementation = TaskStatus.class))}),
+                            schema = @Schema(implementation = TaskStatusResponse.class))}),
             @ApiResponse(responseCode = "404", description = "The task status is not found",
                     content = @Content),
             @ApiResponse(responseCode = "422", description = "Invalid request",
                     content = @Content)})
     @PutMapping(ID)
-    public TaskStatus update(@Parameter(description = "id of task status to be updated")
-                                 @PathVariable final Long id, @RequestBody @Valid final TaskStatusDto dto) {
+    public TaskStatusResponse update(@Parameter(description = "id of task status to be updated")
+                                     @PathVariable final Long id, @RequestBody @Valid final TaskStatusDto dto) {
         return taskStatusService.updateTaskStatus(id, dto);
     }
 
@@ -0,0 +1,59 @@
+package hexlet.code.controller;
+
+import hexlet.code.dto.RefreshTokenDto;
+import hexlet.code.dto.TokenResponse;
+import hexlet.code.service.TokenService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.AllArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+
+import static hexlet.code.controller.TokenController.TOKEN_CONTROLLER_PATH;
+import static hexlet.code.filter.JWTAuthorizationFilter.stripBearer;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+
+@AllArgsConstructor
+@RestController
+@RequestMapping("${base-url}" + TOKEN_CONTROLLER_PATH)
+public class TokenController {
+
+    public static final String TOKEN_CONTROLLER_PATH = "/token";
+    public static final String REFRESH = "/refresh";
+    public static final String REVOKE = "/revoke";
+
+    private final TokenService tokenService;
+
+    @Operation(summary = "Exchange a refresh token for a new access token and a new refresh token")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The tokens are issued, the old refresh token is revoked",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = TokenResponse.class))}),
+            @ApiResponse(responseCode = "401", description = "The refresh token is invalid, expired or revoked",
+                    content = @Content)})
+    @PostMapping(REFRESH)
+    public TokenResponse refresh(@RequestBody @Valid final RefreshTokenDto dto) {
+        return tokenService.refresh(dto.getRefreshToken());
+    }
+
+    @Operation(summary = "Revoke the current access token and, if given, the refresh token")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The tokens are revoked"),
+            @ApiResponse(responseCode = "401", description = "The refresh token is invalid",
+                    content = @Content)})
+    @PostMapping(REVOKE)
+    public void revoke(@RequestHeader(AUTHORIZATION) final String authorization,
+                       @RequestBody(required = false) final RefreshTokenDto dto) {
+        tokenService.revoke(
+                stripBearer(authorization),
+                dto == null ? null : dto.getRefreshToken());
+    }
+}
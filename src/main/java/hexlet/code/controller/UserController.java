@@ -1,11 +1,13 @@
 package hexlet.code.controller;
 
+import hexlet.code.component.IdempotencyStore;
 import hexlet.code.dto.UserDto;
-import hexlet.code.model.User;
-import hexlet.code.repository.UserRepository;
+import hexlet.code.dto.UserResponse;
+import hexlet.code.repository.ProjectionRepository;
 import hexlet.code.service.UserService;
 
 import java.util.List;
+import java.util.Set;
 import javax.validation.Valid;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -22,10 +24,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import static hexlet.code.component.IdempotencyStore.IDEMPOTENCY_KEY;
 import static hexlet.code.controller.UserController.USER_CONTROLLER_PATH;
 import static org.springframework.http.HttpStatus.CREATED;
 
@@ -41,39 +46,44 @@ public class UserController {
             """;
 
     private final UserService userService;
-    private final UserRepository userRepository;
+    private final ProjectionRepository projectionRepository;
+    private final IdempotencyStore idempotencyStore;
 
     @Operation(summary = "Create new user")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "The user is created",
                     content = {@Content(mediaType = "application/json",
-                            schema = @Schema(implementation = User.class))})})
+                            schema = @Schema(implementation = UserResponse.class))})})
     @PostMapping
     @ResponseStatus(CREATED)
-    public User registerNew(@RequestBody @Valid final UserDto dto) {
-        return userService.createNewUser(dto);
+    public UserResponse registerNew(@RequestBody @Valid final UserDto dto,
+                                    @Parameter(description = "repeated requests with the same key are registered once")
+                                    @RequestHeader(value = IDEMPOTENCY_KEY, required = false) final String key) {
+        return idempotencyStore.execute(USER_CONTROLLER_PATH, null, key, dto, () -> userService.createNewUser(dto));
     }
 
     @Operation(summary = "Get all users")
     @ApiResponse(responseCode = "200", description = "The users are found",
-            content = @Content(schema = @Schema(implementation = User.class)))
+            content = @Content(schema = @Schema(implementation = UserResponse.class)))
     @GetMapping
-    public List<User> getAll() {
-        return userRepository.findAll()
-                .stream()
-                .toList();
+    public List<?> getAll(@Parameter(description = "comma separated fields to return, e.g. id,name")
+                          @RequestParam(required = false) final Set<String> fields) {
+        if (fields != null && !fields.isEmpty()) {
+            return projectionRepository.findUsers(fields);
+        }
+        return projectionRepository.findAllUsers();
     }
 
     @Operation(summary = "Get a user by id")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "The user is found",
                     content = {@Content(mediaType = "application/json",
-                            schema = @Schema(implementation = User.class))}),
+                            schema = @Schema(implementation = UserResponse.class))}),
             @ApiResponse(responseCode = "404", description = "The user is not found",
                     content = @Content)})
     @GetMapping(ID)
-    public User getUserById(@Parameter(description = "id of user to be searched")
-                            @PathVariable final Long id) {
+    public UserResponse getUserById(@Parameter(description = "id of user to be searched")
+                                    @PathVariable final Long id) {
         return userService.getUser(id);
     }
 
@@ -81,7 +91,7 @@ public class UserController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "The user is updated",
                     content = {@Content(mediaType = "application/json",
-                            schema = @Schema(implementation = User.class))}),
+                            schema = @Schema(implementation = UserResponse.class))}),
             @ApiResponse(responseCode = "404", description = "The user is not found",
                     content = @Content),
             @ApiResponse(responseCode = "403", description = "Forbidden to update",
@@ -90,8 +100,8 @@ public class UserController {
                     content = @Content)})
     @PutMapping(ID)
     @PreAuthorize(ONLY_OWNER_BY_ID)
-    public User update(@Parameter(description = "id of user to be updated")
-                       @PathVariable final Long id, @RequestBody @Valid final UserDto dto) {
+    public UserResponse update(@Parameter(description = "id of user to be updated")
+                               @PathVariable final Long id, @RequestBody @Valid final UserDto dto) {
         return userService.updateUser(id, dto);
     }
 
@@ -0,0 +1,21 @@
+package hexlet.code.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivePolicyDto {
+
+    @NotNull
+    private Long taskStatusId;
+
+    @NotNull
+    @Min(0)
+    private Integer olderThanDays;
+}
@@ -0,0 +1,17 @@
+package hexlet.code.dto;
+
+import java.util.Date;
+import java.util.List;
+
+public record ArchivedTaskResponse(
+        Long id,
+        String name,
+        String description,
+        Long taskStatusId,
+        Long authorId,
+        Long executorId,
+        List<Long> labelIds,
+        Date createdAt,
+        Date archivedAt
+) {
+}
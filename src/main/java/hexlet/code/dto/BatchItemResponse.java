@@ -0,0 +1,8 @@
+package hexlet.code.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Map;
+
+public record BatchItemResponse(int status, Map<String, String> headers, JsonNode body) {
+}
@@ -0,0 +1,42 @@
+package hexlet.code.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRequestDto {
+
+    public static final int MAX_REQUESTS = 20;
+
+    @Valid
+    @NotEmpty
+    @Size(max = MAX_REQUESTS)
+    private List<SubRequest> requests;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SubRequest {
+
+        @NotBlank
+        private String method;
+
+        /**
+         * Full path with the base url and an optional query string, e.g. {@code /api/tasks?executorId=1}.
+         */
+        @NotBlank
+        private String path;
+
+        private JsonNode body;
+    }
+}
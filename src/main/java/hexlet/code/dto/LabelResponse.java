@@ -0,0 +1,10 @@
+package hexlet.code.dto;
+
+import java.util.Date;
+
+public record LabelResponse(
+        Long id,
+        String name,
+        Date createdAt
+) {
+}
@@ -0,0 +1,7 @@
+package hexlet.code.dto;
+
+/**
+ * @param usage the number of tasks with the label
+ */
+public record LabelSuggestion(Long id, String name, Long usage) {
+}
@@ -0,0 +1,23 @@
+package hexlet.code.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.validation.ObjectError;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Error body in the RFC 7807 {@code application/problem+json} format,
+ * extended with the stable error {@code code}, the validation {@code errors}
+ * and the blocking {@code references} of a refused delete.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProblemResponse(String type,
+                              String title,
+                              int status,
+                              String detail,
+                              String instance,
+                              String code,
+                              List<ObjectError> errors,
+                              Map<String, Long> references) {
+}
@@ -0,0 +1,14 @@
+package hexlet.code.dto;
+
+/**
+ * An archive run: {@code archived} counts the tasks archived so far, final once the status is not
+ * {@code RUNNING}.
+ */
+public record TaskArchiveResponse(String jobId, Status status, long archived) {
+
+    public enum Status {
+        RUNNING,
+        DONE,
+        FAILED
+    }
+}
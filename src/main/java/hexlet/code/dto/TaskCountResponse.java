@@ -0,0 +1,8 @@
+package hexlet.code.dto;
+
+/**
+ * @param totalCount the number of tasks, or the threshold when {@code estimated}
+ * @param estimated  there are more than {@code totalCount} tasks, they were not counted exactly
+ */
+public record TaskCountResponse(long totalCount, boolean estimated) {
+}
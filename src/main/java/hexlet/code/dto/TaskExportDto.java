@@ -0,0 +1,20 @@
+package hexlet.code.dto;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * One line of the NDJSON task export. References are flattened to ids, so the lines can be
+ * imported back or loaded into analytics without the nested objects.
+ */
+public record TaskExportDto(
+        Long id,
+        String name,
+        String description,
+        Long taskStatusId,
+        Long authorId,
+        Long executorId,
+        List<Long> labelIds,
+        Date createdAt
+) {
+}
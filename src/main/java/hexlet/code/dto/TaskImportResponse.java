@@ -0,0 +1,4 @@
+package hexlet.code.dto;
+
+public record TaskImportResponse(long imported) {
+}
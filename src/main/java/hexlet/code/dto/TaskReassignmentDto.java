@@ -0,0 +1,29 @@
+package hexlet.code.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskReassignmentDto {
+
+    public enum Role {
+        AUTHOR,
+        EXECUTOR
+    }
+
+    @NotNull
+    private Role role;
+
+    @NotNull
+    private Long fromUserId;
+
+    @NotNull
+    private Long toUserId;
+
+    private Long labelId;
+}
@@ -0,0 +1,16 @@
+package hexlet.code.dto;
+
+import java.util.Date;
+import java.util.List;
+
+public record TaskResponse(
+        Long id,
+        String name,
+        String description,
+        TaskStatusResponse taskStatus,
+        UserResponse author,
+        UserResponse executor,
+        List<LabelResponse> labels,
+        Date createdAt
+) {
+}
@@ -0,0 +1,21 @@
+package hexlet.code.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskStatusMoveDto {
+
+    @NotNull
+    private Long fromStatusId;
+
+    @NotNull
+    private Long toStatusId;
+
+    private Long labelId;
+}
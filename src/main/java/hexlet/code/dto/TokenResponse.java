@@ -0,0 +1,4 @@
+package hexlet.code.dto;
+
+public record TokenResponse(String accessToken, String refreshToken, long expiresIn) {
+}
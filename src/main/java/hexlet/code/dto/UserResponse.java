@@ -0,0 +1,12 @@
+package hexlet.code.dto;
+
+import java.util.Date;
+
+public record UserResponse(
+        Long id,
+        String email,
+        String firstName,
+        String lastName,
+        Date createdAt
+) {
+}
@@ -0,0 +1,29 @@
+package hexlet.code.event;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Published inside the transaction whenever tasks gain or lose labels, so that the label usage counts can
+ * be updated once it commits. {@code deltas} is the change of the task count per label id;
+ * {@code allLabels} is set when it is not known, e.g. after an import.
+ */
+public record LabelUsageChangedEvent(Map<Long, Integer> deltas, boolean allLabels) {
+
+    public static LabelUsageChangedEvent of(final Collection<Long> removed, final Collection<Long> added) {
+        final Map<Long, Integer> deltas = new HashMap<>();
+        removed.forEach(id -> deltas.merge(id, -1, Integer::sum));
+        added.forEach(id -> deltas.merge(id, 1, Integer::sum));
+        deltas.values().removeIf(delta -> delta == 0);
+        return new LabelUsageChangedEvent(Map.copyOf(deltas), false);
+    }
+
+    public static LabelUsageChangedEvent all() {
+        return new LabelUsageChangedEvent(Map.of(), true);
+    }
+
+    public boolean isEmpty() {
+        return !allLabels && deltas.isEmpty();
+    }
+}
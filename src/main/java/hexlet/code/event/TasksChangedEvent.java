@@ -0,0 +1,28 @@
+package hexlet.code.event;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Published inside the transaction whenever tasks are created, changed or deleted, so that read-side
+ * caches can drop what is stale once it commits. {@code userIds} are the authors and executors whose
+ * task lists changed; {@code allUsers} is set when they are not known, e.g. after a bulk update.
+ */
+public record TasksChangedEvent(Set<Long> userIds, boolean allUsers) {
+
+    public static TasksChangedEvent forUsers(final Long... userIds) {
+        return new TasksChangedEvent(Stream.of(userIds)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toUnmodifiableSet()), false);
+    }
+
+    public static TasksChangedEvent all() {
+        return new TasksChangedEvent(Set.of(), true);
+    }
+
+    public boolean affects(final Long userId) {
+        return allUsers || userIds.contains(userId);
+    }
+}
@@ -0,0 +1,19 @@
+package hexlet.code.exceptions;
+
+/**
+ * Base class for expected failures such as a missing entity or a bad reference.
+ * These are part of normal control flow, so no stack trace is captured and suppression is disabled.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    private final ErrorCode code;
+
+    protected DomainException(final ErrorCode code, final String message) {
+        super(message, null, false, false);
+        this.code = code;
+    }
+
+    public ErrorCode getCode() {
+        return code;
+    }
+}
@@ -0,0 +1,21 @@
+package hexlet.code.exceptions;
+
+import java.util.Map;
+
+/**
+ * Refused delete of an entity that tasks still point to. Carries the number of blocking tasks
+ * per reference, e.g. {@code authorTasks -> 3}, so the client can tell what has to be reassigned first.
+ */
+public class EntityInUseException extends DomainException {
+
+    private final Map<String, Long> references;
+
+    public EntityInUseException(final String message, final Map<String, Long> references) {
+        super(ErrorCode.ENTITY_IN_USE, message);
+        this.references = references;
+    }
+
+    public Map<String, Long> getReferences() {
+        return references;
+    }
+}
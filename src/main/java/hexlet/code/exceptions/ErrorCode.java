@@ -0,0 +1,62 @@
+package hexlet.code.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.FORBIDDEN;
+import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
+
+/**
+ * Stable error codes returned in the {@code code} member of problem responses.
+ * Clients may rely on the codes, so they are never renamed, only added.
+ */
+public enum ErrorCode {
+    TASK_NOT_FOUND("task-not-found", NOT_FOUND, "Task not found"),
+    USER_NOT_FOUND("user-not-found", NOT_FOUND, "User not found"),
+    TASK_STATUS_NOT_FOUND("task-status-not-found", NOT_FOUND, "Task status not found"),
+    LABEL_NOT_FOUND("label-not-found", NOT_FOUND, "Label not found"),
+    ARCHIVED_TASK_NOT_FOUND("archived-task-not-found", NOT_FOUND, "Archived task not found"),
+    ARCHIVE_JOB_NOT_FOUND("archive-job-not-found", NOT_FOUND, "Archive job not found"),
+    RESOURCE_NOT_FOUND("not-found", NOT_FOUND, "Resource not found"),
+    INVALID_REFERENCE("invalid-reference", BAD_REQUEST, "Invalid reference"),
+    INVALID_REQUEST("invalid-request", BAD_REQUEST, "Invalid request"),
+    MALFORMED_BODY("malformed-body", BAD_REQUEST, "Malformed request body"),
+    VALIDATION_FAILED("validation-failed", UNPROCESSABLE_ENTITY, "Validation failed"),
+    ENTITY_IN_USE("entity-in-use", UNPROCESSABLE_ENTITY, "Entity is still referenced"),
+    DATA_INTEGRITY_VIOLATION("data-integrity-violation", UNPROCESSABLE_ENTITY, "Data integrity violation"),
+    ACCESS_DENIED("access-denied", FORBIDDEN, "Access denied"),
+    UNAUTHORIZED("unauthorized", HttpStatus.UNAUTHORIZED, "Unauthorized"),
+    RATE_LIMITED("rate-limited", TOO_MANY_REQUESTS, "Too many requests"),
+    INTERNAL_ERROR("internal-error", INTERNAL_SERVER_ERROR, "Internal server error");
+
+    private static final String TYPE_PREFIX = "urn:task-manager:problem:";
+
+    private final String code;
+    private final HttpStatus status;
+    private final String title;
+
+    ErrorCode(final String code, final HttpStatus status, final String title) {
+        this.code = code;
+        this.status = status;
+        this.title = title;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getType() {
+        return TYPE_PREFIX + code;
+    }
+}
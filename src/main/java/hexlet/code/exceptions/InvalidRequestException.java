@@ -1,17 +1,16 @@
 package hexlet.code.exceptions;
 
-import org.springframework.http.HttpStatus;
+public class InvalidRequestException extends DomainException {
 
-public class InvalidRequestException extends RuntimeException {
-
-    private final HttpStatus status;
-
-    public InvalidRequestException(String message, HttpStatus status) {
-        super(message);
-        this.status = status;
+    public InvalidRequestException(ErrorCode code, String message) {
+        super(code, message);
     }
 
     public static InvalidRequestException invalidRequest(String message) {
-        return new InvalidRequestException(message, HttpStatus.BAD_REQUEST);
+        return new InvalidRequestException(ErrorCode.INVALID_REQUEST, message);
+    }
+
+    public static InvalidRequestException invalidReference(String message) {
+        return new InvalidRequestException(ErrorCode.INVALID_REFERENCE, message);
     }
 }
@@ -0,0 +1,8 @@
+package hexlet.code.exceptions;
+
+public class NotFoundException extends DomainException {
+
+    public NotFoundException(final ErrorCode code) {
+        super(code, code.getTitle());
+    }
+}
@@ -0,0 +1,8 @@
+package hexlet.code.exceptions;
+
+public class UnauthorizedException extends DomainException {
+
+    public UnauthorizedException(final String message) {
+        super(ErrorCode.UNAUTHORIZED, message);
+    }
+}
@@ -18,8 +18,14 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 
+/**
+ * Logs in with an email and a password. The access token is written as the body, as before refresh
+ * tokens existed, and the refresh token is returned in the {@value #REFRESH_TOKEN_HEADER} header.
+ */
 public class JWTAuthenticationFilter extends UsernamePasswordAuthenticationFilter {
 
+    public static final String REFRESH_TOKEN_HEADER = "Refresh-Token";
+
     private static final ObjectMapper MAPPER = new ObjectMapper();
 
     private final JWTHelper jwtHelper;
@@ -61,8 +67,10 @@ public class JWTAuthenticationFilter extends UsernamePasswordAuthenticationFilte
                                             final FilterChain chain,
                                             final Authentication authResult) throws IOException {
         final UserDetails user = (UserDetails) authResult.getPrincipal();
-        final String token = jwtHelper.expiring(Map.of(SPRING_SECURITY_FORM_USERNAME_KEY, user.getUsername()));
+        final Map<String, Object> attributes = Map.of(SPRING_SECURITY_FORM_USERNAME_KEY, user.getUsername());
+        final String token = jwtHelper.expiring(attributes);
 
+        response.setHeader(REFRESH_TOKEN_HEADER, jwtHelper.refreshing(attributes));
         response.getWriter().println(token);
     }
 }
@@ -1,8 +1,10 @@
 package hexlet.code.filter;
 
 import hexlet.code.component.JWTHelper;
+import hexlet.code.component.TokenRevocations;
 import java.io.IOException;
 import java.util.Optional;
+import java.util.Set;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
@@ -12,21 +14,33 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import static hexlet.code.component.JWTHelper.ACCESS;
+import static hexlet.code.config.security.SecurityConfig.ADMIN_AUTHORITIES;
 import static hexlet.code.config.security.SecurityConfig.DEFAULT_AUTHORITIES;
 import static org.springframework.http.HttpHeaders.AUTHORIZATION;
-import static org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter.SPRING_SECURITY_FORM_USERNAME_KEY;
 
+/**
+ * Authenticates requests with an access token. Refresh tokens and revoked tokens are rejected; tokens
+ * issued before token types were introduced count as access tokens. The users listed in
+ * {@code security.admins} get the {@code ADMIN} authority.
+ */
 public class JWTAuthorizationFilter extends OncePerRequestFilter {
 
-    private static final String BEARER = "Bearer";
+    public static final String BEARER = "Bearer";
 
     private final RequestMatcher publicUrls;
     private final JWTHelper jwtHelper;
+    private final TokenRevocations tokenRevocations;
+    private final Set<String> admins;
 
     public JWTAuthorizationFilter(final RequestMatcher publicUrls,
-                                  final JWTHelper jwtHelper) {
+                                  final JWTHelper jwtHelper,
+                                  final TokenRevocations tokenRevocations,
+                                  final Set<String> admins) {
         this.publicUrls = publicUrls;
         this.jwtHelper = jwtHelper;
+        this.tokenRevocations = tokenRevocations;
+        this.admins = admins;
     }
 
     @Override
@@ -40,11 +54,11 @@ public class JWTAuthorizationFilter extends OncePerRequestFilter {
                                     final FilterChain filterChain) throws ServletException, IOException {
 
         final var authToken = Optional.ofNullable(request.getHeader(AUTHORIZATION))
-                .map(header -> header.replaceFirst("^" + BEARER, ""))
-                .map(String::trim)
-                .map(jwtHelper::verify)
-                .map(claims -> claims.get(SPRING_SECURITY_FORM_USERNAME_KEY))
-                .map(Object::toString)
+                .map(JWTAuthorizationFilter::stripBearer)
+                .map(jwtHelper::verifyToken)
+                .filter(token -> ACCESS.equals(token.type()))
+                .filter(token -> !tokenRevocations.isRevoked(token.tokenId()))
+                .map(JWTHelper.VerifiedToken::username)
                 .map(this::buildAuthToken)
                 .orElseThrow();
 
@@ -53,11 +67,15 @@ public class JWTAuthorizationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    public static String stripBearer(final String header) {
+        return (header.startsWith(BEARER) ? header.substring(BEARER.length()) : header).trim();
+    }
+
     private UsernamePasswordAuthenticationToken buildAuthToken(final String username) {
         return new UsernamePasswordAuthenticationToken(
                 username,
                 null,
-                DEFAULT_AUTHORITIES
+                admins.contains(username) ? ADMIN_AUTHORITIES : DEFAULT_AUTHORITIES
         );
     }
 }
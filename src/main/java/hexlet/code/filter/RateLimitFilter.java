@@ -0,0 +1,117 @@
+package hexlet.code.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.component.RateLimiter;
+import hexlet.code.dto.ProblemResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import static hexlet.code.BaseExceptionHandler.ERRORS_METRIC;
+import static hexlet.code.controller.BatchController.BATCH_CONTROLLER_PATH;
+import static hexlet.code.controller.LabelController.LABEL_CONTROLLER_PATH;
+import static hexlet.code.controller.TaskArchiveController.ARCHIVE_CONTROLLER_PATH;
+import static hexlet.code.controller.TaskController.TASK_CONTROLLER_PATH;
+import static hexlet.code.controller.TaskStatusController.TASK_STATUS_CONTROLLER_PATH;
+import static hexlet.code.controller.TokenController.TOKEN_CONTROLLER_PATH;
+import static hexlet.code.controller.UserController.USER_CONTROLLER_PATH;
+import static hexlet.code.exceptions.ErrorCode.RATE_LIMITED;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+import static org.springframework.http.MediaType.APPLICATION_PROBLEM_JSON_VALUE;
+
+/**
+ * Applies the {@link RateLimiter} budgets to authenticated requests. The route class is the controller
+ * the first path segment after the base url names, so {@code /api/tasks} and {@code /api/tasks/5} share a
+ * budget, and every other path falls into {@value #OTHER_ROUTES}: the classes are a fixed set, so a client
+ * cannot fill the limiter with made-up paths. {@code GET}, {@code HEAD} and {@code OPTIONS} take from the
+ * read budget, the rest from the write one.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String LIMIT_HEADER = "RateLimit-Limit";
+    public static final String REMAINING_HEADER = "RateLimit-Remaining";
+    public static final String RESET_HEADER = "RateLimit-Reset";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    private static final String OTHER_ROUTES = "other";
+    private static final Set<String> ROUTE_CLASSES = Stream.of(TASK_CONTROLLER_PATH, USER_CONTROLLER_PATH,
+                    TASK_STATUS_CONTROLLER_PATH, LABEL_CONTROLLER_PATH, ARCHIVE_CONTROLLER_PATH,
+                    BATCH_CONTROLLER_PATH, TOKEN_CONTROLLER_PATH)
+            .map(path -> path.substring(1))
+            .collect(Collectors.toUnmodifiableSet());
+
+    private final RateLimiter rateLimiter;
+    private final String baseUrl;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitFilter(final RateLimiter rateLimiter,
+                           final String baseUrl,
+                           final MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.baseUrl = baseUrl;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request,
+                                    final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        final RateLimiter.Decision decision = rateLimiter.tryAcquire(
+                authentication.getName(),
+                routeClass(request),
+                !READ_METHODS.contains(request.getMethod())
+        );
+        response.setHeader(LIMIT_HEADER, String.valueOf(decision.limit()));
+        response.setHeader(REMAINING_HEADER, String.valueOf(decision.remaining()));
+        response.setHeader(RESET_HEADER, String.valueOf(decision.resetSeconds()));
+
+        if (decision.allowed()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        meterRegistry.counter(ERRORS_METRIC,
+                "code", RATE_LIMITED.getCode(),
+                "status", String.valueOf(RATE_LIMITED.getStatus().value())).increment();
+        response.setStatus(RATE_LIMITED.getStatus().value());
+        response.setHeader(RETRY_AFTER, String.valueOf(decision.retryAfterSeconds()));
+        response.setContentType(APPLICATION_PROBLEM_JSON_VALUE);
+        MAPPER.writeValue(response.getOutputStream(), new ProblemResponse(
+                RATE_LIMITED.getType(),
+                RATE_LIMITED.getTitle(),
+                RATE_LIMITED.getStatus().value(),
+                "Rate limit of " + decision.limit() + " requests exceeded, retry in "
+                        + decision.retryAfterSeconds() + " s",
+                request.getRequestURI(),
+                RATE_LIMITED.getCode(),
+                null,
+                null
+        ));
+    }
+
+    private String routeClass(final HttpServletRequest request) {
+        final String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith(baseUrl + "/")) {
+            return OTHER_ROUTES;
+        }
+        final int start = baseUrl.length() + 1;
+        final int end = path.indexOf('/', start);
+        final String segment = end < 0 ? path.substring(start) : path.substring(start, end);
+        return ROUTE_CLASSES.contains(segment) ? segment : OTHER_ROUTES;
+    }
+}
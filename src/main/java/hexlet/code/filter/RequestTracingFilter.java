@@ -0,0 +1,57 @@
+package hexlet.code.filter;
+
+import hexlet.code.component.SqlTracker;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Gives each request an id, taken from the {@value #REQUEST_ID_HEADER} header when the client or a proxy
+ * sent a usable one and echoed in the response, and attributes the SQL it runs with the {@link SqlTracker}.
+ * Runs ahead of the security filters, so the user lookups of the authentication count too.
+ */
+public class RequestTracingFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    private static final int MAX_REQUEST_ID_LENGTH = 64;
+
+    private final SqlTracker sqlTracker;
+
+    public RequestTracingFilter(final SqlTracker sqlTracker) {
+        this.sqlTracker = sqlTracker;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request,
+                                    final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        final String requestId = requestId(request.getHeader(REQUEST_ID_HEADER));
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        final SqlTracker.RequestSql previous = sqlTracker.begin(request, requestId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            sqlTracker.end(previous);
+        }
+    }
+
+    private static String requestId(final String header) {
+        if (header == null || header.isEmpty() || header.length() > MAX_REQUEST_ID_LENGTH) {
+            return UUID.randomUUID().toString();
+        }
+        for (int i = 0; i < header.length(); i++) {
+            final char c = header.charAt(i);
+            // ids end up in the logs, so nothing that could forge a line
+            if (!Character.isLetterOrDigit(c) && c != '-' && c != '_' && c != '.') {
+                return UUID.randomUUID().toString();
+            }
+        }
+        return header;
+    }
+}
@@ -0,0 +1,61 @@
+package hexlet.code.mapper;
+
+import hexlet.code.dto.LabelResponse;
+import hexlet.code.dto.TaskResponse;
+import hexlet.code.dto.TaskStatusResponse;
+import hexlet.code.dto.UserResponse;
+import hexlet.code.model.Label;
+import hexlet.code.model.Task;
+import hexlet.code.model.TaskStatus;
+import hexlet.code.model.User;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+
+/**
+ * Maps managed entities to the immutable response records. Has to be called inside the
+ * service transaction, so every association it touches is already loaded.
+ */
+@Component
+public class ResponseMapper {
+
+    public UserResponse toResponse(final User user) {
+        if (user == null) {
+            return null;
+        }
+        return new UserResponse(
+                user.getId(),
+                user.getEmail(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getCreatedAt()
+        );
+    }
+
+    public TaskStatusResponse toResponse(final TaskStatus taskStatus) {
+        if (taskStatus == null) {
+            return null;
+        }
+        return new TaskStatusResponse(taskStatus.getId(), taskStatus.getName(), taskStatus.getCreatedAt());
+    }
+
+    public LabelResponse toResponse(final Label label) {
+        return new LabelResponse(label.getId(), label.getName(), label.getCreatedAt());
+    }
+
+    public TaskResponse toResponse(final Task task) {
+        return new TaskResponse(
+                task.getId(),
+                task.getName(),
+                task.getDescription(),
+                toResponse(task.getTaskStatus()),
+                toResponse(task.getAuthor()),
+                toResponse(task.getExecutor()),
+                task.getLabels() == null ? null : task.getLabels().stream()
+                        .map(this::toResponse)
+                        .sorted(Comparator.comparing(LabelResponse::id))
+                        .toList(),
+                task.getCreatedAt()
+        );
+    }
+}
@@ -0,0 +1,57 @@
+package hexlet.code.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.CollectionTable;
+import javax.persistence.Column;
+import javax.persistence.ElementCollection;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import java.util.Date;
+import java.util.Set;
+
+import static javax.persistence.TemporalType.TIMESTAMP;
+
+/**
+ * A task moved out of {@code tasks} by the archiver. References are kept as plain ids without
+ * foreign keys, so archived rows never block deleting a user, status or label.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "tasks_archive")
+@NoArgsConstructor
+public class ArchivedTask {
+
+    @Id
+    private Long id;
+
+    private String name;
+
+    private String description;
+
+    private Long taskStatusId;
+
+    private Long authorId;
+
+    private Long executorId;
+
+    @Temporal(TIMESTAMP)
+    private Date createdAt;
+
+    @Temporal(TIMESTAMP)
+    private Date statusChangedAt;
+
+    @Temporal(TIMESTAMP)
+    private Date archivedAt;
+
+    @ElementCollection
+    @CollectionTable(name = "tasks_labels_archive", joinColumns = @JoinColumn(name = "tasks_id"))
+    @Column(name = "labels_id")
+    private Set<Long> labelIds;
+}
@@ -0,0 +1,47 @@
+package hexlet.code.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import java.util.Date;
+
+import static javax.persistence.TemporalType.TIMESTAMP;
+
+/**
+ * A batch of the invalidation bus as a row, read by the other instances polling the table. The payload
+ * has a {@code cache<TAB>key} line per invalidation. Rows are deleted after a retention period.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "cache_invalidations", indexes = {
+    @Index(name = "IDX_CACHE_INVALIDATIONS_CREATED_AT", columnList = "created_at")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String nodeId;
+
+    private long sequenceNumber;
+
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    @Temporal(TIMESTAMP)
+    private Date createdAt;
+}
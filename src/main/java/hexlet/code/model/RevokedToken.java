@@ -0,0 +1,33 @@
+package hexlet.code.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import java.util.Date;
+
+import static javax.persistence.TemporalType.TIMESTAMP;
+
+/**
+ * The id ({@code jti}) of a token that must no longer be accepted. The row is kept until the token
+ * would have expired anyway.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "revoked_tokens")
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+
+    @Id
+    private String id;
+
+    @Temporal(TIMESTAMP)
+    private Date expiresAt;
+}
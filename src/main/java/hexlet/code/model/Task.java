@@ -5,6 +5,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -13,7 +15,11 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.ManyToOne;
 import javax.persistence.ManyToMany;
 import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.FetchType;
+import javax.persistence.Index;
+import javax.persistence.JoinTable;
+import javax.persistence.PrePersist;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.validation.constraints.NotBlank;
@@ -26,13 +32,20 @@ import static javax.persistence.TemporalType.TIMESTAMP;
 @Getter
 @Setter
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+    @Index(name = "IDX_TASKS_AUTHOR_ID", columnList = "author_id"),
+    @Index(name = "IDX_TASKS_EXECUTOR_ID", columnList = "executor_id"),
+    @Index(name = "IDX_TASKS_TASK_STATUS_ID", columnList = "task_status_id"),
+    @Index(name = "IDX_TASKS_STATUS_CHANGED_AT", columnList = "task_status_id, status_changed_at"),
+    @Index(name = "IDX_TASKS_CREATED_AT", columnList = "created_at")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 public class Task {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -54,8 +67,20 @@ public class Task {
 
     @CreationTimestamp
     @Temporal(TIMESTAMP)
+    @DateTimeFormat(iso = ISO.DATE_TIME, fallbackPatterns = "yyyy-MM-dd")
     private Date createdAt;
 
+    @Temporal(TIMESTAMP)
+    private Date statusChangedAt;
+
     @ManyToMany(fetch = FetchType.EAGER)
+    @JoinTable(name = "tasks_labels", indexes = @Index(name = "IDX_TASKS_LABELS_LABELS_ID", columnList = "labels_id"))
     private Set<Label> labels;
+
+    @PrePersist
+    void initStatusChangedAt() {
+        if (statusChangedAt == null) {
+            statusChangedAt = new Date();
+        }
+    }
 }
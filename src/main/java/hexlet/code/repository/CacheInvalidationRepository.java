@@ -0,0 +1,26 @@
+package hexlet.code.repository;
+
+import hexlet.code.model.CacheInvalidation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.Temporal;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+import static javax.persistence.TemporalType.TIMESTAMP;
+
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidation, Long> {
+
+    List<CacheInvalidation> findTop500ByIdGreaterThanOrderByIdAsc(Long id);
+
+    @Query("select coalesce(max(i.id), 0) from CacheInvalidation i")
+    long findMaxId();
+
+    @Modifying
+    @Transactional
+    @Query("delete from CacheInvalidation i where i.createdAt < :before")
+    int deleteCreatedBefore(@Temporal(TIMESTAMP) Date before);
+}
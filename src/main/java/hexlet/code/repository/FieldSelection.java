@@ -0,0 +1,81 @@
+package hexlet.code.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Path;
+import hexlet.code.exceptions.InvalidRequestException;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Subset of whitelisted columns requested through the {@code fields} parameter.
+ * Field names use dots for nested objects ({@code taskStatus.id}), which are rebuilt
+ * as nested maps when the tuple is converted back.
+ */
+public final class FieldSelection {
+
+    private final Map<String, Expression<?>> columns;
+
+    private FieldSelection(final Map<String, Expression<?>> columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * Resolves requested field names against the whitelist. The {@code id} field is always selected,
+     * so the result can be correlated with collections loaded by a follow-up query.
+     */
+    public static FieldSelection of(final Collection<String> requested, final Map<String, Expression<?>> allowed) {
+        final Map<String, Expression<?>> columns = new LinkedHashMap<>();
+        columns.put("id", allowed.get("id"));
+        for (String field : requested) {
+            final Expression<?> expression = allowed.get(field);
+            if (expression == null) {
+                throw InvalidRequestException.invalidRequest("Unknown field: " + field);
+            }
+            columns.put(field, expression);
+        }
+        return new FieldSelection(columns);
+    }
+
+    public static FieldSelection all(final Map<String, Expression<?>> allowed) {
+        return new FieldSelection(new LinkedHashMap<>(allowed));
+    }
+
+    public Expression<?>[] expressions() {
+        return columns.values().toArray(new Expression<?>[0]);
+    }
+
+    /**
+     * Whether any selected column is read from the given alias, i.e. the alias has to be joined.
+     */
+    public boolean uses(final EntityPath<?> alias) {
+        return columns.values().stream()
+                .anyMatch(expression -> expression instanceof Path<?> path && alias.equals(path.getRoot()));
+    }
+
+    public Map<String, Object> toMap(final Tuple tuple) {
+        final Map<String, Object> result = new LinkedHashMap<>();
+        columns.forEach((field, expression) -> put(result, field, tuple.get(expression)));
+        result.replaceAll((field, value) -> value instanceof Map<?, ?> nested && isEmpty(nested) ? null : value);
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void put(final Map<String, Object> target, final String field, final Object value) {
+        final int dot = field.indexOf('.');
+        if (dot < 0) {
+            target.put(field, value);
+            return;
+        }
+        final var nested = (Map<String, Object>) target.computeIfAbsent(
+                field.substring(0, dot), key -> new LinkedHashMap<String, Object>());
+        put(nested, field.substring(dot + 1), value);
+    }
+
+    private static boolean isEmpty(final Map<?, ?> nested) {
+        return nested.values().stream().allMatch(value -> value == null);
+    }
+}
@@ -1,7 +1,20 @@
 package hexlet.code.repository;
 
+import hexlet.code.dto.LabelSuggestion;
 import hexlet.code.model.Label;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface LabelRepository extends JpaRepository<Label, Long> {
+
+    @Query("select new hexlet.code.dto.LabelSuggestion(l.id, l.name, count(t.id)) "
+            + "from Label l left join l.tasks t group by l.id, l.name")
+    List<LabelSuggestion> findSuggestions();
+
+    @Query("select new hexlet.code.dto.LabelSuggestion(l.id, l.name, count(t.id)) "
+            + "from Label l left join l.tasks t where l.id in :ids group by l.id, l.name")
+    List<LabelSuggestion> findSuggestions(Collection<Long> ids);
 }
@@ -0,0 +1,297 @@
+package hexlet.code.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.ConstructorExpression;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import hexlet.code.dto.LabelResponse;
+import hexlet.code.dto.TaskResponse;
+import hexlet.code.dto.TaskStatusResponse;
+import hexlet.code.dto.UserResponse;
+import hexlet.code.model.QLabel;
+import hexlet.code.model.QTask;
+import hexlet.code.model.QTaskStatus;
+import hexlet.code.model.QUser;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read side for the list endpoints: selects only the needed columns with QueryDSL projections
+ * and builds response records or field maps from them, so no managed entities are created.
+ */
+@Repository
+@Transactional(readOnly = true)
+@AllArgsConstructor
+public class ProjectionRepository {
+
+    public static final String LABELS_PREFIX = "labels.";
+
+    /**
+     * The task ids bound per label query, far below the bind parameter limit of the drivers.
+     */
+    private static final int LABEL_QUERY_IDS = 1000;
+
+    private static final QTask TASK = QTask.task;
+    private static final QTaskStatus TASK_STATUS = new QTaskStatus("taskStatus");
+    private static final QUser AUTHOR = new QUser("author");
+    private static final QUser EXECUTOR = new QUser("executor");
+    private static final QLabel LABEL = QLabel.label;
+    private static final QUser USER = QUser.user;
+    private static final QTaskStatus STATUS = QTaskStatus.taskStatus;
+
+    private static final Map<String, Expression<?>> TASK_FIELDS = columns(
+            "id", TASK.id,
+            "name", TASK.name,
+            "description", TASK.description,
+            "createdAt", TASK.createdAt,
+            "taskStatus.id", TASK.taskStatus.id,
+            "taskStatus.name", TASK_STATUS.name,
+            "taskStatus.createdAt", TASK_STATUS.createdAt,
+            "author.id", TASK.author.id,
+            "author.email", AUTHOR.email,
+            "author.firstName", AUTHOR.firstName,
+            "author.lastName", AUTHOR.lastName,
+            "author.createdAt", AUTHOR.createdAt,
+            "executor.id", TASK.executor.id,
+            "executor.email", EXECUTOR.email,
+            "executor.firstName", EXECUTOR.firstName,
+            "executor.lastName", EXECUTOR.lastName,
+            "executor.createdAt", EXECUTOR.createdAt
+    );
+
+    private static final Map<String, Expression<?>> TASK_LABEL_FIELDS = columns(
+            "id", LABEL.id,
+            "name", LABEL.name,
+            "createdAt", LABEL.createdAt
+    );
+
+    private static final Map<String, Expression<?>> USER_FIELDS = columns(
+            "id", USER.id,
+            "email", USER.email,
+            "firstName", USER.firstName,
+            "lastName", USER.lastName,
+            "createdAt", USER.createdAt
+    );
+
+    private static final Map<String, Expression<?>> TASK_STATUS_FIELDS = columns(
+            "id", STATUS.id,
+            "name", STATUS.name,
+            "createdAt", STATUS.createdAt
+    );
+
+    private static final Map<String, Expression<?>> LABEL_FIELDS = columns(
+            "id", LABEL.id,
+            "name", LABEL.name,
+            "createdAt", LABEL.createdAt
+    );
+
+    private static final ConstructorExpression<UserResponse> USER_RESPONSE = Projections.constructor(
+            UserResponse.class, USER.id, USER.email, USER.firstName, USER.lastName, USER.createdAt);
+
+    private static final ConstructorExpression<TaskStatusResponse> TASK_STATUS_RESPONSE = Projections.constructor(
+            TaskStatusResponse.class, STATUS.id, STATUS.name, STATUS.createdAt);
+
+    private static final ConstructorExpression<LabelResponse> LABEL_RESPONSE = Projections.constructor(
+            LabelResponse.class, LABEL.id, LABEL.name, LABEL.createdAt);
+
+    private final JPAQueryFactory queryFactory;
+
+    public List<TaskResponse> findAllTasks(final Predicate predicate) {
+        return findAllTasks(predicate, TaskOrder.DEFAULT);
+    }
+
+    public List<TaskResponse> findAllTasks(final Predicate predicate, final TaskOrder order) {
+        final FieldSelection selection = FieldSelection.all(TASK_FIELDS);
+        final List<Tuple> rows = fetchTasks(predicate, selection, order);
+        final Map<Long, List<Tuple>> labels = fetchTaskLabels(
+                rows.stream().map(row -> row.get(TASK.id)).toList(),
+                FieldSelection.all(TASK_LABEL_FIELDS)
+        );
+
+        return rows.stream()
+                .map(row -> new TaskResponse(
+                        row.get(TASK.id),
+                        row.get(TASK.name),
+                        row.get(TASK.description),
+                        new TaskStatusResponse(
+                                row.get(TASK.taskStatus.id),
+                                row.get(TASK_STATUS.name),
+                                row.get(TASK_STATUS.createdAt)),
+                        new UserResponse(
+                                row.get(TASK.author.id),
+                                row.get(AUTHOR.email),
+                                row.get(AUTHOR.firstName),
+                                row.get(AUTHOR.lastName),
+                                row.get(AUTHOR.createdAt)),
+                        row.get(TASK.executor.id) == null ? null : new UserResponse(
+                                row.get(TASK.executor.id),
+                                row.get(EXECUTOR.email),
+                                row.get(EXECUTOR.firstName),
+                                row.get(EXECUTOR.lastName),
+                                row.get(EXECUTOR.createdAt)),
+                        labels.getOrDefault(row.get(TASK.id), List.of()).stream()
+                                .map(label -> new LabelResponse(
+                                        label.get(LABEL.id),
+                                        label.get(LABEL.name),
+                                        label.get(LABEL.createdAt)))
+                                .toList(),
+                        row.get(TASK.createdAt)))
+                .toList();
+    }
+
+    public Optional<TaskResponse> findTaskById(final Long id) {
+        return findAllTasks(TASK.id.eq(id)).stream().findFirst();
+    }
+
+    public List<UserResponse> findAllUsers() {
+        return queryFactory.select(USER_RESPONSE).from(USER).orderBy(USER.id.asc()).fetch();
+    }
+
+    public Optional<UserResponse> findUserById(final Long id) {
+        return Optional.ofNullable(queryFactory.select(USER_RESPONSE).from(USER).where(USER.id.eq(id)).fetchOne());
+    }
+
+    public List<TaskStatusResponse> findAllTaskStatuses() {
+        return queryFactory.select(TASK_STATUS_RESPONSE).from(STATUS).orderBy(STATUS.id.asc()).fetch();
+    }
+
+    public Optional<TaskStatusResponse> findTaskStatusById(final Long id) {
+        return Optional.ofNullable(queryFactory.select(TASK_STATUS_RESPONSE)
+                .from(STATUS)
+                .where(STATUS.id.eq(id))
+                .fetchOne());
+    }
+
+    public List<LabelResponse> findAllLabels() {
+        return queryFactory.select(LABEL_RESPONSE).from(LABEL).orderBy(LABEL.id.asc()).fetch();
+    }
+
+    public Optional<LabelResponse> findLabelById(final Long id) {
+        return Optional.ofNullable(queryFactory.select(LABEL_RESPONSE).from(LABEL).where(LABEL.id.eq(id)).fetchOne());
+    }
+
+    /**
+     * Counts the tasks of the filter; with a positive limit, stops after that many. The filters only
+     * read columns of the tasks table, so this does not join.
+     */
+    public long countTasks(final Predicate predicate, final long limit) {
+        if (limit <= 0) {
+            final Long count = queryFactory.select(TASK.count()).from(TASK).where(predicate).fetchOne();
+            return count == null ? 0 : count;
+        }
+        return queryFactory.select(TASK.id).from(TASK).where(predicate).limit(limit).fetch().size();
+    }
+
+    public List<Map<String, Object>> findTasks(final Predicate predicate,
+                                               final Collection<String> fields,
+                                               final TaskOrder order) {
+        final List<String> labelFields = fields.stream()
+                .filter(field -> field.startsWith(LABELS_PREFIX))
+                .map(field -> field.substring(LABELS_PREFIX.length()))
+                .toList();
+        final FieldSelection selection = FieldSelection.of(
+                fields.stream().filter(field -> !field.startsWith(LABELS_PREFIX)).toList(),
+                TASK_FIELDS
+        );
+
+        final List<Map<String, Object>> tasks = fetchTasks(predicate, selection, order).stream()
+                .map(selection::toMap)
+                .toList();
+
+        if (!labelFields.isEmpty()) {
+            final FieldSelection labelSelection = FieldSelection.of(labelFields, TASK_LABEL_FIELDS);
+            final Map<Long, List<Tuple>> labels = fetchTaskLabels(
+                    tasks.stream().map(task -> (Long) task.get("id")).toList(),
+                    labelSelection
+            );
+            tasks.forEach(task -> task.put("labels", labels.getOrDefault((Long) task.get("id"), List.of()).stream()
+                    .map(labelSelection::toMap)
+                    .toList()));
+        }
+        return tasks;
+    }
+
+    public List<Map<String, Object>> findUsers(final Collection<String> fields) {
+        return find(USER, USER.id, FieldSelection.of(fields, USER_FIELDS));
+    }
+
+    public List<Map<String, Object>> findTaskStatuses(final Collection<String> fields) {
+        return find(STATUS, STATUS.id, FieldSelection.of(fields, TASK_STATUS_FIELDS));
+    }
+
+    public List<Map<String, Object>> findLabels(final Collection<String> fields) {
+        return find(LABEL, LABEL.id, FieldSelection.of(fields, LABEL_FIELDS));
+    }
+
+    private List<Tuple> fetchTasks(final Predicate predicate, final FieldSelection selection, final TaskOrder order) {
+        final JPAQuery<Tuple> query = queryFactory.select(selection.expressions()).from(TASK);
+        if (selection.uses(TASK_STATUS)) {
+            query.join(TASK.taskStatus, TASK_STATUS);
+        }
+        if (selection.uses(AUTHOR)) {
+            query.join(TASK.author, AUTHOR);
+        }
+        if (selection.uses(EXECUTOR)) {
+            query.leftJoin(TASK.executor, EXECUTOR);
+        }
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return query.orderBy(order.specifiers()).fetch();
+    }
+
+    private Map<Long, List<Tuple>> fetchTaskLabels(final List<Long> taskIds, final FieldSelection selection) {
+        final Map<Long, List<Tuple>> labels = new HashMap<>();
+        if (taskIds.isEmpty()) {
+            return labels;
+        }
+        final List<Expression<?>> expressions = new ArrayList<>(List.of(selection.expressions()));
+        expressions.add(TASK.id);
+
+        for (int from = 0; from < taskIds.size(); from += LABEL_QUERY_IDS) {
+            queryFactory.select(expressions.toArray(new Expression<?>[0]))
+                    .from(TASK)
+                    .join(TASK.labels, LABEL)
+                    .where(TASK.id.in(taskIds.subList(from, Math.min(from + LABEL_QUERY_IDS, taskIds.size()))))
+                    .orderBy(LABEL.id.asc())
+                    .fetch()
+                    .forEach(tuple -> labels.computeIfAbsent(tuple.get(TASK.id), id -> new ArrayList<>())
+                            .add(tuple));
+        }
+        return labels;
+    }
+
+    private List<Map<String, Object>> find(final EntityPath<?> root,
+                                           final NumberPath<Long> id,
+                                           final FieldSelection selection) {
+        return queryFactory.select(selection.expressions())
+                .from(root)
+                .orderBy(id.asc())
+                .fetch()
+                .stream()
+                .map(selection::toMap)
+                .toList();
+    }
+
+    private static Map<String, Expression<?>> columns(final Object... pairs) {
+        final Map<String, Expression<?>> columns = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            columns.put((String) pairs[i], (Expression<?>) pairs[i + 1]);
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,33 @@
+package hexlet.code.repository;
+
+import hexlet.code.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.Temporal;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+import static javax.persistence.TemporalType.TIMESTAMP;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    /**
+     * Fails with a {@link org.springframework.dao.DataIntegrityViolationException} if the id is already
+     * revoked, unlike {@code save}, which would merge.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "insert into revoked_tokens (id, expires_at) values (:id, :expiresAt)", nativeQuery = true)
+    void insert(String id, @Temporal(TIMESTAMP) Date expiresAt);
+
+    @Query("select t.id from RevokedToken t")
+    List<String> findAllIds();
+
+    @Modifying
+    @Transactional
+    @Query("delete from RevokedToken t where t.expiresAt < :now")
+    int deleteExpired(@Temporal(TIMESTAMP) Date now);
+}
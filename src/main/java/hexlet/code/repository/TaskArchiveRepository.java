@@ -0,0 +1,165 @@
+package hexlet.code.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import hexlet.code.dto.ArchivedTaskResponse;
+import hexlet.code.model.QArchivedTask;
+import hexlet.code.model.QTask;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.TemporalType;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Moves rows between {@code tasks}/{@code tasks_labels} and their {@code _archive} twins with set-based
+ * {@code INSERT ... SELECT} and {@code DELETE} statements, and reads the archive without loading entities.
+ */
+@Repository
+@AllArgsConstructor
+public class TaskArchiveRepository {
+
+    private static final QTask TASK = QTask.task;
+    private static final QArchivedTask ARCHIVED = QArchivedTask.archivedTask;
+    private static final NumberPath<Long> LABEL_ID = Expressions.numberPath(Long.class, "labelId");
+
+    private static final String ARCHIVE_TASKS = """
+            INSERT INTO tasks_archive (id, name, description, created_at, status_changed_at,
+                                       author_id, executor_id, task_status_id, archived_at)
+            SELECT id, name, description, created_at, status_changed_at,
+                   author_id, executor_id, task_status_id, :archivedAt
+            FROM tasks
+            WHERE id IN (:ids)
+            """;
+    private static final String ARCHIVE_LABELS = """
+            INSERT INTO tasks_labels_archive (tasks_id, labels_id)
+            SELECT tasks_id, labels_id FROM tasks_labels WHERE tasks_id IN (:ids)
+            """;
+
+    /**
+     * A missing executor or label is dropped rather than failing the restore, the author and status
+     * are checked by the caller.
+     */
+    private static final String RESTORE_TASK = """
+            INSERT INTO tasks (id, name, description, created_at, status_changed_at,
+                               author_id, executor_id, task_status_id)
+            SELECT a.id, a.name, a.description, a.created_at, a.status_changed_at, a.author_id,
+                   CASE WHEN EXISTS (SELECT 1 FROM users u WHERE u.id = a.executor_id) THEN a.executor_id END,
+                   a.task_status_id
+            FROM tasks_archive a
+            WHERE a.id = :id
+            """;
+    private static final String RESTORE_LABELS = """
+            INSERT INTO tasks_labels (tasks_id, labels_id)
+            SELECT a.tasks_id, a.labels_id
+            FROM tasks_labels_archive a
+            JOIN labels l ON l.id = a.labels_id
+            WHERE a.tasks_id = :id
+            """;
+
+    private final EntityManager entityManager;
+    private final JPAQueryFactory queryFactory;
+
+    /**
+     * Selects and locks up to {@code limit} tasks that have been in the status since {@code cutoff} or earlier.
+     */
+    public List<Long> lockTasksToArchive(final Long taskStatusId, final Date cutoff, final int limit) {
+        return queryFactory.select(TASK.id)
+                .from(TASK)
+                .where(TASK.taskStatus.id.eq(taskStatusId), TASK.statusChangedAt.loe(cutoff))
+                .orderBy(TASK.id.asc())
+                .limit(limit)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .fetch();
+    }
+
+    public int archive(final List<Long> taskIds, final Date archivedAt) {
+        final int archived = entityManager.createNativeQuery(ARCHIVE_TASKS)
+                .setParameter("ids", taskIds)
+                .setParameter("archivedAt", archivedAt, TemporalType.TIMESTAMP)
+                .executeUpdate();
+        entityManager.createNativeQuery(ARCHIVE_LABELS)
+                .setParameter("ids", taskIds)
+                .executeUpdate();
+        entityManager.createNativeQuery("DELETE FROM tasks_labels WHERE tasks_id IN (:ids)")
+                .setParameter("ids", taskIds)
+                .executeUpdate();
+        entityManager.createNativeQuery("DELETE FROM tasks WHERE id IN (:ids)")
+                .setParameter("ids", taskIds)
+                .executeUpdate();
+        return archived;
+    }
+
+    public void restore(final Long id) {
+        entityManager.createNativeQuery(RESTORE_TASK).setParameter("id", id).executeUpdate();
+        entityManager.createNativeQuery(RESTORE_LABELS).setParameter("id", id).executeUpdate();
+        entityManager.createNativeQuery("DELETE FROM tasks_labels_archive WHERE tasks_id = :id")
+                .setParameter("id", id)
+                .executeUpdate();
+        entityManager.createNativeQuery("DELETE FROM tasks_archive WHERE id = :id")
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+
+    public List<ArchivedTaskResponse> findArchivedTasks(final Predicate predicate,
+                                                        final long offset,
+                                                        final long limit) {
+        final List<Tuple> rows = queryFactory.select(ARCHIVED.id, ARCHIVED.name, ARCHIVED.description,
+                        ARCHIVED.taskStatusId, ARCHIVED.authorId, ARCHIVED.executorId,
+                        ARCHIVED.createdAt, ARCHIVED.archivedAt)
+                .from(ARCHIVED)
+                .where(predicate)
+                .orderBy(ARCHIVED.id.asc())
+                .offset(offset)
+                .limit(limit)
+                .fetch();
+        final Map<Long, List<Long>> labelIds = findLabelIds(rows.stream()
+                .map(row -> row.get(ARCHIVED.id))
+                .toList());
+
+        return rows.stream()
+                .map(row -> new ArchivedTaskResponse(
+                        row.get(ARCHIVED.id),
+                        row.get(ARCHIVED.name),
+                        row.get(ARCHIVED.description),
+                        row.get(ARCHIVED.taskStatusId),
+                        row.get(ARCHIVED.authorId),
+                        row.get(ARCHIVED.executorId),
+                        labelIds.getOrDefault(row.get(ARCHIVED.id), List.of()),
+                        row.get(ARCHIVED.createdAt),
+                        row.get(ARCHIVED.archivedAt)))
+                .toList();
+    }
+
+    public Optional<ArchivedTaskResponse> findArchivedTask(final Long id) {
+        return findArchivedTasks(ARCHIVED.id.eq(id), 0, 1).stream().findFirst();
+    }
+
+    private Map<Long, List<Long>> findLabelIds(final List<Long> taskIds) {
+        if (taskIds.isEmpty()) {
+            return Map.of();
+        }
+        return queryFactory.select(ARCHIVED.id, LABEL_ID)
+                .from(ARCHIVED)
+                .join(ARCHIVED.labelIds, LABEL_ID)
+                .where(ARCHIVED.id.in(taskIds))
+                .orderBy(LABEL_ID.asc())
+                .fetch()
+                .stream()
+                .collect(Collectors.groupingBy(
+                        row -> row.get(ARCHIVED.id),
+                        HashMap::new,
+                        Collectors.mapping(row -> row.get(LABEL_ID), Collectors.toList())
+                ));
+    }
+}
@@ -0,0 +1,70 @@
+package hexlet.code.repository;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.ComparableExpressionBase;
+import hexlet.code.exceptions.InvalidRequestException;
+import hexlet.code.model.QTask;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Order of the task lists requested through the {@code sort} parameter, e.g. {@code sort=createdAt,desc}.
+ * Only indexed columns can be sorted on, so a sorted page never needs a full scan and sort of the table;
+ * ties are broken by id, which also keeps the default order.
+ */
+public final class TaskOrder {
+
+    public static final TaskOrder DEFAULT = new TaskOrder(List.of());
+
+    private static final QTask TASK = QTask.task;
+
+    private static final Map<String, ComparableExpressionBase<?>> SORTABLE = Map.of(
+            "id", TASK.id,
+            "createdAt", TASK.createdAt
+    );
+
+    private final List<Sort.Order> orders;
+
+    private TaskOrder(final List<Sort.Order> orders) {
+        this.orders = orders;
+    }
+
+    public static TaskOrder of(final Sort sort) {
+        if (sort == null || sort.isUnsorted()) {
+            return DEFAULT;
+        }
+        final List<Sort.Order> orders = sort.toList();
+        for (Sort.Order order : orders) {
+            if (!SORTABLE.containsKey(order.getProperty())) {
+                throw InvalidRequestException.invalidRequest("Tasks can only be sorted by "
+                        + String.join(", ", SORTABLE.keySet()) + ": " + order.getProperty());
+            }
+        }
+        return new TaskOrder(orders);
+    }
+
+    public OrderSpecifier<?>[] specifiers() {
+        final List<OrderSpecifier<?>> specifiers = new ArrayList<>();
+        boolean byId = false;
+        for (Sort.Order order : orders) {
+            final ComparableExpressionBase<?> expression = SORTABLE.get(order.getProperty());
+            specifiers.add(order.isAscending() ? expression.asc() : expression.desc());
+            byId |= expression == TASK.id;
+        }
+        if (!byId) {
+            specifiers.add(TASK.id.asc());
+        }
+        return specifiers.toArray(new OrderSpecifier<?>[0]);
+    }
+
+    @Override
+    public String toString() {
+        return orders.stream()
+                .map(order -> order.getProperty() + ' ' + order.getDirection())
+                .collect(Collectors.joining(", "));
+    }
+}
@@ -1,5 +1,8 @@
 package hexlet.code.repository;
 
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.NumberPath;
+import hexlet.code.exceptions.InvalidRequestException;
 import hexlet.code.model.QTask;
 import hexlet.code.model.Task;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
@@ -8,18 +11,65 @@ import org.springframework.data.querydsl.binding.QuerydslBindings;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.TreeSet;
+
 @Repository
 public interface TaskRepository extends
         CrudRepository<Task, Long>,
         QuerydslPredicateExecutor<Task>,
         QuerydslBinderCustomizer<QTask> {
 
+    int MAX_FILTER_VALUES = 100;
+
+    boolean existsByAuthorIdOrExecutorId(Long authorId, Long executorId);
+
+    boolean existsByTaskStatusId(Long taskStatusId);
+
+    boolean existsByLabelsId(Long labelId);
+
+    long countByAuthorId(Long authorId);
+
+    long countByExecutorId(Long executorId);
+
+    long countByTaskStatusId(Long taskStatusId);
+
+    long countByLabelsId(Long labelId);
+
+    /**
+     * Filters of the task list. Each id filter takes several values, {@code ?taskStatus=3&taskStatus=4}
+     * means either status; {@code createdAt} takes a lower bound and optionally an exclusive upper bound,
+     * as an ISO date-time or date. Every filter is on an indexed column; other properties are ignored rather
+     * than bound by default, so a request cannot filter on, say, the description and scan the table.
+     */
     @Override
     default void customize(QuerydslBindings bindings, QTask task) {
-        bindings.bind(task.taskStatus.id).first((path, value) -> path.eq(value));
-        bindings.bind(task.executor.id).first((path, value) -> path.eq(value));
-        bindings.bind(task.author.id).first((path, value) -> path.eq(value));
-        bindings.bind(task.labels.any().id).first((path, value) -> path.eq(value));
-        bindings.excluding(task.id, task.name, task.description, task.createdAt);
+        bindings.bind(task.taskStatus.id).as("taskStatus").all(TaskRepository::in);
+        bindings.bind(task.executor.id).as("executorId").all(TaskRepository::in);
+        bindings.bind(task.author.id).as("authorId").all(TaskRepository::in);
+        bindings.bind(task.labels.any().id).as("labels").all(TaskRepository::in);
+        bindings.bind(task.createdAt).all((path, values) -> {
+            if (values.size() > 2) {
+                throw InvalidRequestException.invalidRequest("createdAt takes a lower and an upper bound");
+            }
+            final Iterator<? extends Date> bounds = values.iterator();
+            final Date from = bounds.next();
+            return Optional.of(bounds.hasNext() ? path.goe(from).and(path.lt(bounds.next())) : path.goe(from));
+        });
+        bindings.excludeUnlistedProperties(true);
+    }
+
+    private static Optional<Predicate> in(final NumberPath<Long> path, final Collection<? extends Long> values) {
+        if (values.size() > MAX_FILTER_VALUES) {
+            throw InvalidRequestException.invalidRequest("At most " + MAX_FILTER_VALUES + " values per filter");
+        }
+        if (values.size() == 1) {
+            return Optional.of(path.eq(values.iterator().next()));
+        }
+        // sorted, so the same values in any order make the same filter and share cached results
+        return Optional.of(path.in(new TreeSet<Long>(values)));
     }
 }
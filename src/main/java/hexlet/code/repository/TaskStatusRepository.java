@@ -3,5 +3,9 @@ package hexlet.code.repository;
 import hexlet.code.model.TaskStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Optional;
+
 public interface TaskStatusRepository extends JpaRepository<TaskStatus, Long> {
+
+    Optional<TaskStatus> findByName(String name);
 }
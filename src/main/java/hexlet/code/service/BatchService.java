@@ -0,0 +1,18 @@
+package hexlet.code.service;
+
+import hexlet.code.dto.BatchRequestDto;
+import hexlet.code.dto.BatchResponse;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+public interface BatchService {
+
+    /**
+     * Set on every sub-request, so that a sub-request that reaches the batch endpoint, whatever its path
+     * looked like, is refused.
+     */
+    String SUB_REQUEST_ATTRIBUTE = BatchService.class.getName() + ".SUB_REQUEST";
+
+    BatchResponse execute(BatchRequestDto batch, HttpServletRequest request, HttpServletResponse response);
+}
@@ -0,0 +1,191 @@
+package hexlet.code.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import hexlet.code.component.RateLimiter;
+import hexlet.code.component.SqlTracker;
+import hexlet.code.dto.BatchItemResponse;
+import hexlet.code.dto.BatchRequestDto;
+import hexlet.code.dto.BatchResponse;
+import hexlet.code.exceptions.InvalidRequestException;
+import hexlet.code.filter.RateLimitFilter;
+import hexlet.code.filter.RequestTracingFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import javax.annotation.PreDestroy;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static hexlet.code.controller.BatchController.BATCH_CONTROLLER_PATH;
+import static javax.servlet.http.HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+
+/**
+ * Runs the sub-requests of a batch through the {@link DispatcherServlet} in-process, so they go through
+ * the same handlers, validation and exception handling as separate requests, but share the authentication
+ * of the batch request. Each sub-request is charged to the rate limit on its own.
+ *
+ * <p>Consecutive reads run in parallel on a pool of {@code batch.threads}; a write waits for the reads
+ * before it and the requests after it wait for the write, so a batch can read its own writes.
+ * Every sub-request runs in its own transaction, a failing one does not undo the others.
+ *
+ * <p>Paths are checked as the handler mapping will see them, decoded and with repeated slashes merged,
+ * and a batch sent as a sub-request is refused whatever its path.
+ */
+@Service
+public class BatchServiceImpl implements BatchService {
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final ObjectProvider<DispatcherServlet> dispatcherServlet;
+    private final RateLimitFilter rateLimitFilter;
+    private final RequestTracingFilter requestTracingFilter;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final ExecutorService executor;
+
+    public BatchServiceImpl(final ObjectProvider<DispatcherServlet> dispatcherServlet,
+                            final RateLimiter rateLimiter,
+                            final MeterRegistry meterRegistry,
+                            final SqlTracker sqlTracker,
+                            final ObjectMapper objectMapper,
+                            @Value("${base-url}") final String baseUrl,
+                            @Value("${batch.threads:8}") final int threads) {
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("batch-");
+        threadFactory.setDaemon(true);
+        this.dispatcherServlet = dispatcherServlet;
+        this.rateLimitFilter = new RateLimitFilter(rateLimiter, baseUrl, meterRegistry);
+        this.requestTracingFilter = new RequestTracingFilter(sqlTracker);
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        // the sub-requests run with the security context of the batch request
+        this.executor = new DelegatingSecurityContextExecutorService(
+                Executors.newFixedThreadPool(threads, threadFactory));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public BatchResponse execute(final BatchRequestDto batch,
+                                 final HttpServletRequest request,
+                                 final HttpServletResponse response) {
+        if (request.getAttribute(SUB_REQUEST_ATTRIBUTE) != null) {
+            throw InvalidRequestException.invalidRequest("Batches cannot be nested");
+        }
+        final List<BatchRequestDto.SubRequest> subRequests = batch.getRequests();
+        subRequests.forEach(this::validate);
+
+        final BatchItemResponse[] responses = new BatchItemResponse[subRequests.size()];
+        final List<Integer> reads = new ArrayList<>();
+        for (int i = 0; i < subRequests.size(); i++) {
+            if (READ_METHODS.contains(subRequests.get(i).getMethod().toUpperCase(Locale.ROOT))) {
+                reads.add(i);
+                continue;
+            }
+            runInParallel(reads, subRequests, responses, request, response);
+            reads.clear();
+            responses[i] = dispatch(subRequests.get(i), request, response);
+        }
+        runInParallel(reads, subRequests, responses, request, response);
+        return new BatchResponse(List.of(responses));
+    }
+
+    private void runInParallel(final List<Integer> indexes,
+                               final List<BatchRequestDto.SubRequest> subRequests,
+                               final BatchItemResponse[] responses,
+                               final HttpServletRequest request,
+                               final HttpServletResponse response) {
+        if (indexes.size() == 1) {
+            responses[indexes.get(0)] = dispatch(subRequests.get(indexes.get(0)), request, response);
+            return;
+        }
+        CompletableFuture.allOf(indexes.stream()
+                .map(i -> CompletableFuture.runAsync(() -> {
+                    responses[i] = dispatch(subRequests.get(i), request, response);
+                }, executor))
+                .toArray(CompletableFuture[]::new))
+                .join();
+    }
+
+    private BatchItemResponse dispatch(final BatchRequestDto.SubRequest subRequest,
+                                       final HttpServletRequest request,
+                                       final HttpServletResponse response) {
+        final BatchServletResponse servletResponse = new BatchServletResponse(response);
+        try {
+            final BatchServletRequest servletRequest = new BatchServletRequest(
+                    request,
+                    subRequest.getMethod().toUpperCase(Locale.ROOT),
+                    subRequest.getPath(),
+                    subRequest.getBody() == null ? null : objectMapper.writeValueAsBytes(subRequest.getBody()));
+            // each sub-request has its own id and route for the SQL it runs
+            requestTracingFilter.doFilter(servletRequest, servletResponse,
+                    (tracedRequest, tracedResponse) -> rateLimitFilter.doFilter(tracedRequest, tracedResponse,
+                            (filteredRequest, filteredResponse) -> dispatcherServlet.getObject()
+                                    .service(filteredRequest, filteredResponse)));
+        } catch (ServletException | IOException | RuntimeException e) {
+            return new BatchItemResponse(SC_INTERNAL_SERVER_ERROR, Map.of(), TextNode.valueOf(e.getMessage()));
+        }
+        return new BatchItemResponse(
+                servletResponse.getStatus(),
+                Map.copyOf(servletResponse.getHeaderMap()),
+                readBody(servletResponse));
+    }
+
+    private JsonNode readBody(final BatchServletResponse servletResponse) {
+        final byte[] body = servletResponse.getBody();
+        if (body.length == 0) {
+            return null;
+        }
+        final String contentType = servletResponse.getContentType();
+        if (contentType != null && contentType.contains("json")) {
+            try {
+                return objectMapper.readTree(body);
+            } catch (IOException e) {
+                // not really json, returned as text below
+            }
+        }
+        return TextNode.valueOf(new String(body, StandardCharsets.UTF_8));
+    }
+
+    private void validate(final BatchRequestDto.SubRequest subRequest) {
+        final String path = canonicalPath(subRequest.getPath());
+        if (!path.startsWith(baseUrl + "/") || path.contains("..")) {
+            throw InvalidRequestException.invalidRequest(
+                    "Batch path must start with " + baseUrl + "/: " + subRequest.getPath());
+        }
+        if (path.startsWith(baseUrl + BATCH_CONTROLLER_PATH)) {
+            throw InvalidRequestException.invalidRequest("Batches cannot be nested");
+        }
+    }
+
+    private static String canonicalPath(final String pathWithQuery) {
+        final String path = UriComponentsBuilder.fromUriString(pathWithQuery).build().getPath();
+        try {
+            return UriUtils.decode(path == null ? "" : path, StandardCharsets.UTF_8).replaceAll("/{2,}", "/");
+        } catch (IllegalArgumentException e) {
+            throw InvalidRequestException.invalidRequest("Malformed batch path: " + pathWithQuery);
+        }
+    }
+}
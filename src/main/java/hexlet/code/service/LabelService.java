@@ -1,15 +1,22 @@
 package hexlet.code.service;
 
 import hexlet.code.dto.LabelDto;
-import hexlet.code.model.Label;
+import hexlet.code.dto.LabelResponse;
+import hexlet.code.dto.LabelSuggestion;
+
+import java.util.List;
 
 public interface LabelService {
 
-    Label createLabel(LabelDto labelDto);
+    LabelResponse createLabel(LabelDto labelDto);
+
+    LabelResponse updateLabel(Long id, LabelDto labelDto);
+
+    LabelResponse getLabel(Long id);
 
-    Label updateLabel(Long id, LabelDto labelDto);
+    List<LabelResponse> getLabels();
 
-    Label getLabel(Long id);
+    List<LabelSuggestion> suggestLabels(String prefix, int limit);
 
     void deleteLabel(Long id);
 }
@@ -1,53 +1,106 @@
 package hexlet.code.service;
 
+import hexlet.code.component.LabelSuggestions;
+import hexlet.code.component.SingleFlight;
 import hexlet.code.dto.LabelDto;
+import hexlet.code.dto.LabelResponse;
+import hexlet.code.dto.LabelSuggestion;
+import hexlet.code.exceptions.EntityInUseException;
+import hexlet.code.exceptions.NotFoundException;
+import hexlet.code.mapper.ResponseMapper;
 import hexlet.code.model.Label;
 import hexlet.code.repository.LabelRepository;
+import hexlet.code.repository.ProjectionRepository;
+import hexlet.code.repository.TaskRepository;
 import lombok.AllArgsConstructor;
-import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.NoSuchElementException;
+import java.util.List;
+import java.util.Map;
+
+import static hexlet.code.exceptions.ErrorCode.LABEL_NOT_FOUND;
 
 @Service
 @Transactional
 @AllArgsConstructor
 public class LabelServiceImpl implements LabelService {
 
+    public static final String LABEL_READS = "label";
+    public static final String LABEL_LIST_READS = "labels";
+
     private final LabelRepository labelRepository;
+    private final ResponseMapper responseMapper;
+    private final ProjectionRepository projectionRepository;
+    private final TaskRepository taskRepository;
+    private final SingleFlight singleFlight;
+    private final LabelSuggestions labelSuggestions;
 
     @Override
-    public Label createLabel(LabelDto labelDto) {
+    public LabelResponse createLabel(LabelDto labelDto) {
         final Label label = new Label();
         label.setName(labelDto.getName());
 
-        return labelRepository.save(label);
+        forgetReads();
+        final Label saved = labelRepository.save(label);
+        labelSuggestions.put(saved.getId(), saved.getName());
+        return responseMapper.toResponse(saved);
     }
 
     @Override
-    public Label updateLabel(Long id, LabelDto labelDto) {
+    public LabelResponse updateLabel(Long id, LabelDto labelDto) {
         final Label labelToUpdate = labelRepository.findById(id)
-                .orElseThrow(() -> new NoSuchElementException("Label not found"));
+                .orElseThrow(() -> new NotFoundException(LABEL_NOT_FOUND));
 
         labelToUpdate.setName(labelDto.getName());
 
-        return labelRepository.save(labelToUpdate);
+        forgetReads();
+        final Label saved = labelRepository.save(labelToUpdate);
+        labelSuggestions.put(saved.getId(), saved.getName());
+        return responseMapper.toResponse(saved);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public LabelResponse getLabel(Long id) {
+        return singleFlight.execute(LABEL_READS, id, () -> projectionRepository.findLabelById(id)
+                .orElseThrow(() -> new NotFoundException(LABEL_NOT_FOUND)));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<LabelResponse> getLabels() {
+        return singleFlight.execute(LABEL_LIST_READS, "", projectionRepository::findAllLabels);
     }
 
+    /**
+     * Served from memory, without a transaction holding a connection.
+     */
     @Override
-    public Label getLabel(Long id) {
-        return labelRepository.findById(id)
-                .orElseThrow(() -> new NoSuchElementException("Label not found"));
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<LabelSuggestion> suggestLabels(String prefix, int limit) {
+        return labelSuggestions.suggest(prefix, limit);
     }
 
     @Override
     public void deleteLabel(Long id) {
         final Label label = labelRepository.findById(id)
-                .orElseThrow(() -> new NoSuchElementException("Label not found"));
-        if (label.getTasks() != null && !(label.getTasks().isEmpty())) {
-            throw new DataIntegrityViolationException("Cannot delete the label. Tasks have labels");
+                .orElseThrow(() -> new NotFoundException(LABEL_NOT_FOUND));
+        if (taskRepository.existsByLabelsId(id)) {
+            throw new EntityInUseException("Cannot delete the label. Tasks have labels",
+                    Map.of("tasks", taskRepository.countByLabelsId(id)));
         }
         labelRepository.delete(label);
+        labelSuggestions.remove(id);
+        forgetReads();
+    }
+
+    /**
+     * Also drops the task reads, declared dependent on {@link #LABEL_READS}.
+     */
+    private void forgetReads() {
+        singleFlight.forget(LABEL_READS);
+        singleFlight.forget(LABEL_LIST_READS);
     }
 }
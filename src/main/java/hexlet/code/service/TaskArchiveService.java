@@ -0,0 +1,26 @@
+package hexlet.code.service;
+
+import hexlet.code.dto.ArchivePolicyDto;
+import hexlet.code.dto.ArchivedTaskResponse;
+import hexlet.code.dto.TaskArchiveResponse;
+import hexlet.code.dto.TaskResponse;
+
+import java.util.List;
+
+public interface TaskArchiveService {
+
+    /**
+     * Starts archiving in the background.
+     *
+     * @return the job to poll with {@link #getArchiveJob(String)}
+     */
+    TaskArchiveResponse archiveTasks(ArchivePolicyDto policy);
+
+    TaskArchiveResponse getArchiveJob(String jobId);
+
+    List<ArchivedTaskResponse> getArchivedTasks(int page, int size);
+
+    ArchivedTaskResponse getArchivedTask(Long id);
+
+    TaskResponse restoreTask(Long id);
+}
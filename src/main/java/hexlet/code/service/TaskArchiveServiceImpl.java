@@ -0,0 +1,158 @@
+package hexlet.code.service;
+
+import hexlet.code.component.TaskInbox;
+import hexlet.code.config.ArchiveProperties;
+import hexlet.code.dto.ArchivePolicyDto;
+import hexlet.code.dto.ArchivedTaskResponse;
+import hexlet.code.dto.TaskArchiveResponse;
+import hexlet.code.dto.TaskArchiveResponse.Status;
+import hexlet.code.dto.TaskResponse;
+import hexlet.code.event.LabelUsageChangedEvent;
+import hexlet.code.event.TasksChangedEvent;
+import hexlet.code.exceptions.InvalidRequestException;
+import hexlet.code.exceptions.NotFoundException;
+import hexlet.code.repository.TaskArchiveRepository;
+import hexlet.code.repository.TaskStatusRepository;
+import hexlet.code.repository.UserRepository;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static hexlet.code.exceptions.ErrorCode.ARCHIVED_TASK_NOT_FOUND;
+import static hexlet.code.exceptions.ErrorCode.ARCHIVE_JOB_NOT_FOUND;
+
+/**
+ * Archives tasks in batches of {@code tasks.archive.batch-size}, each batch in its own short transaction
+ * run on the scheduler, the next one scheduled {@code tasks.archive.pause-ms} after it, so archiving a
+ * large backlog never holds long locks on the hot table nor a thread while it waits. A run is a job
+ * whose progress is kept in memory on the instance that started it, for the last {@value #MAX_JOBS} runs.
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+public class TaskArchiveServiceImpl implements TaskArchiveService {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_JOBS = 100;
+
+    private final TaskArchiveRepository archiveRepository;
+    private final TaskStatusRepository taskStatusRepository;
+    private final UserRepository userRepository;
+    private final TaskService taskService;
+    private final UserService userService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskScheduler taskScheduler;
+    private final ArchiveProperties properties;
+    private final TaskInbox taskInbox;
+    private final Map<String, TaskArchiveResponse> jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, TaskArchiveResponse> eldest) {
+            return size() > MAX_JOBS;
+        }
+    });
+
+    @Override
+    public TaskArchiveResponse archiveTasks(ArchivePolicyDto policy) {
+        if (!taskStatusRepository.existsById(policy.getTaskStatusId())) {
+            throw InvalidRequestException.invalidReference("Task status not found");
+        }
+        final Date cutoff = Date.from(Instant.now().minus(policy.getOlderThanDays(), ChronoUnit.DAYS));
+        final TaskArchiveResponse job = new TaskArchiveResponse(UUID.randomUUID().toString(), Status.RUNNING, 0);
+        jobs.put(job.jobId(), job);
+        taskScheduler.schedule(() -> archiveBatch(job, policy.getTaskStatusId(), cutoff), Instant.now());
+        return job;
+    }
+
+    @Override
+    public TaskArchiveResponse getArchiveJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId))
+                .orElseThrow(() -> new NotFoundException(ARCHIVE_JOB_NOT_FOUND));
+    }
+
+    private void archiveBatch(TaskArchiveResponse job, Long taskStatusId, Date cutoff) {
+        final int batch;
+        try {
+            batch = transactionTemplate.execute(status -> archiveBatch(taskStatusId, cutoff));
+        } catch (RuntimeException e) {
+            log.warn("Archive job {} failed after {} tasks", job.jobId(), job.archived(), e);
+            jobs.put(job.jobId(), new TaskArchiveResponse(job.jobId(), Status.FAILED, job.archived()));
+            return;
+        }
+        final long archived = job.archived() + batch;
+        if (batch < properties.batchSize()) {
+            jobs.put(job.jobId(), new TaskArchiveResponse(job.jobId(), Status.DONE, archived));
+            return;
+        }
+        final TaskArchiveResponse next = new TaskArchiveResponse(job.jobId(), Status.RUNNING, archived);
+        jobs.put(job.jobId(), next);
+        taskScheduler.schedule(() -> archiveBatch(next, taskStatusId, cutoff),
+                Instant.now().plusMillis(properties.pauseMs()));
+    }
+
+    private int archiveBatch(Long taskStatusId, Date cutoff) {
+        final List<Long> taskIds = archiveRepository.lockTasksToArchive(taskStatusId, cutoff, properties.batchSize());
+        if (taskIds.isEmpty()) {
+            return 0;
+        }
+        archiveRepository.archive(taskIds, new Date());
+        taskInbox.invalidateAll();
+        eventPublisher.publishEvent(TasksChangedEvent.all());
+        eventPublisher.publishEvent(LabelUsageChangedEvent.all());
+        return taskIds.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ArchivedTaskResponse> getArchivedTasks(int page, int size) {
+        final int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return archiveRepository.findArchivedTasks(null, (long) Math.max(page, 0) * pageSize, pageSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ArchivedTaskResponse getArchivedTask(Long id) {
+        return archiveRepository.findArchivedTask(id)
+                .orElseThrow(() -> new NotFoundException(ARCHIVED_TASK_NOT_FOUND));
+    }
+
+    /**
+     * The task is read once the restore has committed, the task reads run without the caller's transaction.
+     */
+    @Override
+    public TaskResponse restoreTask(Long id) {
+        transactionTemplate.executeWithoutResult(status -> {
+            final ArchivedTaskResponse archived = getArchivedTask(id);
+            if (!userService.isCurrentUserAdmin()
+                    && !archived.authorId().equals(userService.getCurrentUser().getId())) {
+                throw new AccessDeniedException("Only the author or an admin can restore the task");
+            }
+            if (!taskStatusRepository.existsById(archived.taskStatusId())) {
+                throw InvalidRequestException.invalidReference("Task status not found");
+            }
+            if (!userRepository.existsById(archived.authorId())) {
+                throw InvalidRequestException.invalidReference("Author not found");
+            }
+            archiveRepository.restore(id);
+            taskInbox.invalidate(archived.executorId());
+            eventPublisher.publishEvent(TasksChangedEvent.forUsers(archived.authorId(), archived.executorId()));
+            eventPublisher.publishEvent(LabelUsageChangedEvent.of(List.of(), archived.labelIds()));
+        });
+        return taskService.getTask(id);
+    }
+}
@@ -1,15 +1,33 @@
 package hexlet.code.service;
 
+import com.querydsl.core.types.Predicate;
+import hexlet.code.dto.TaskBulkUpdateResponse;
+import hexlet.code.dto.TaskCountResponse;
 import hexlet.code.dto.TaskDto;
-import hexlet.code.model.Task;
+import hexlet.code.dto.TaskReassignmentDto;
+import hexlet.code.dto.TaskResponse;
+import hexlet.code.dto.TaskStatusMoveDto;
+import hexlet.code.repository.TaskOrder;
+
+import java.util.List;
 
 public interface TaskService {
 
-    Task createTask(TaskDto taskDto);
+    TaskResponse createTask(TaskDto taskDto);
+
+    TaskResponse updateTask(Long id, TaskDto taskDto);
+
+    TaskResponse getTask(Long id);
 
-    Task updateTask(Long id, TaskDto taskDto);
+    List<TaskResponse> getTasks(Predicate predicate, TaskOrder order);
 
-    Task getTask(Long id);
+    TaskCountResponse countTasks(Predicate predicate);
+
+    List<TaskResponse> getMyTasks();
 
     void deleteTask(Long id);
+
+    TaskBulkUpdateResponse reassignTasks(TaskReassignmentDto dto);
+
+    TaskBulkUpdateResponse moveTasks(TaskStatusMoveDto dto);
 }
@@ -1,32 +1,107 @@
 package hexlet.code.service;
 
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import hexlet.code.component.InvalidationBus;
+import hexlet.code.component.SingleFlight;
+import hexlet.code.component.TaskCountCache;
+import hexlet.code.component.TaskInbox;
+import hexlet.code.dto.TaskBulkUpdateResponse;
+import hexlet.code.dto.TaskCountResponse;
 import hexlet.code.dto.TaskDto;
+import hexlet.code.dto.TaskReassignmentDto;
+import hexlet.code.dto.TaskResponse;
+import hexlet.code.dto.TaskStatusMoveDto;
+import hexlet.code.event.LabelUsageChangedEvent;
+import hexlet.code.event.TasksChangedEvent;
 import hexlet.code.exceptions.InvalidRequestException;
+import hexlet.code.exceptions.NotFoundException;
+import hexlet.code.mapper.ResponseMapper;
+import hexlet.code.model.Label;
+import hexlet.code.model.QLabel;
+import hexlet.code.model.QTask;
+import hexlet.code.model.QUser;
 import hexlet.code.model.Task;
+import hexlet.code.model.TaskStatus;
+import hexlet.code.model.User;
 import hexlet.code.repository.LabelRepository;
+import hexlet.code.repository.ProjectionRepository;
+import hexlet.code.repository.TaskOrder;
 import hexlet.code.repository.TaskRepository;
 import hexlet.code.repository.TaskStatusRepository;
 import hexlet.code.repository.UserRepository;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.NoSuchElementException;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import static hexlet.code.exceptions.ErrorCode.TASK_NOT_FOUND;
+import static hexlet.code.exceptions.ErrorCode.TASK_STATUS_NOT_FOUND;
+import static hexlet.code.exceptions.ErrorCode.USER_NOT_FOUND;
+import static hexlet.code.service.LabelServiceImpl.LABEL_READS;
+import static hexlet.code.service.TaskStatusServiceImpl.TASK_STATUS_READS;
+
 @Service
 @Transactional
 @AllArgsConstructor
 public class TaskServiceImp implements TaskService {
 
+    public static final String TASK_READS = "task";
+    public static final String TASK_LIST_READS = "tasks";
+    public static final String TASK_COUNT_READS = "task-count";
+    public static final String TASKS_CACHE = "tasks";
+
+    private static final QTask TASK = QTask.task;
+    private static final QTask LABELLED = new QTask("labelled");
+    private static final QLabel LABEL = QLabel.label;
+
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
     private final UserService userService;
     private final TaskStatusRepository taskStatusRepository;
     private final LabelRepository labelRepository;
+    private final ResponseMapper responseMapper;
+    private final ProjectionRepository projectionRepository;
+    private final JPAQueryFactory queryFactory;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SingleFlight singleFlight;
+    private final TaskInbox taskInbox;
+    private final TaskCountCache taskCountCache;
+    private final InvalidationBus invalidationBus;
+
+    /**
+     * Writes on other instances arrive as the users whose tasks changed, or {@link InvalidationBus#ALL}.
+     * Task responses embed their status and labels, so the task reads are forgotten with those reads.
+     */
+    @PostConstruct
+    public void registerCaches() {
+        singleFlight.dependsOn(TASK_READS, TASK_STATUS_READS, LABEL_READS);
+        singleFlight.dependsOn(TASK_LIST_READS, TASK_STATUS_READS, LABEL_READS);
+        invalidationBus.register(TASKS_CACHE, userId -> {
+            if (InvalidationBus.ALL.equals(userId)) {
+                taskInbox.invalidateAll();
+            } else {
+                taskInbox.invalidate(Long.valueOf(userId));
+            }
+            taskCountCache.invalidate();
+        });
+    }
 
     @Override
-    public Task createTask(TaskDto taskDto) {
+    public TaskResponse createTask(TaskDto taskDto) {
         final Task task = new Task();
         task.setName(taskDto.getName());
         task.setDescription(taskDto.getDescription());
@@ -34,18 +109,18 @@ public class TaskServiceImp implements TaskService {
 
         if (taskDto.getExecutorId() != null) {
             var user = userRepository.findById(taskDto.getExecutorId())
-                    .orElseThrow(() -> InvalidRequestException.invalidRequest("Executor not found"));
+                    .orElseThrow(() -> InvalidRequestException.invalidReference("Executor not found"));
             task.setExecutor(user);
         }
 
         var taskStatus = taskStatusRepository.findById(taskDto.getTaskStatusId())
-                .orElseThrow(() -> InvalidRequestException.invalidRequest("Task status not found"));
+                .orElseThrow(() -> InvalidRequestException.invalidReference("Task status not found"));
         task.setTaskStatus(taskStatus);
 
         if (taskDto.getLabelIds() != null) {
             taskDto.getLabelIds().forEach(
                     it -> labelRepository.findById(it)
-                            .orElseThrow(() -> InvalidRequestException.invalidRequest("Label not found"))
+                            .orElseThrow(() -> InvalidRequestException.invalidReference("Label not found"))
             );
 
             task.setLabels(taskDto.getLabelIds().stream()
@@ -53,52 +128,202 @@ public class TaskServiceImp implements TaskService {
                     .collect(Collectors.toSet()));
         }
 
-        return taskRepository.save(task);
+        final Task saved = taskRepository.save(task);
+        taskInbox.assigned(saved.getId(), null, executorId(saved));
+        eventPublisher.publishEvent(TasksChangedEvent.forUsers(authorId(saved), executorId(saved)));
+        eventPublisher.publishEvent(LabelUsageChangedEvent.of(Set.of(), labelIds(saved)));
+        return responseMapper.toResponse(saved);
     }
 
     @Override
-    public Task updateTask(Long id, TaskDto taskDto) {
+    public TaskResponse updateTask(Long id, TaskDto taskDto) {
         final Task taskToUpdate = taskRepository.findById(id)
                 .orElseThrow(() -> InvalidRequestException.invalidRequest("Task not found"));
+        final Long previousExecutorId = executorId(taskToUpdate);
+        final Set<Long> previousLabelIds = labelIds(taskToUpdate);
 
         taskToUpdate.setName(taskDto.getName());
         taskToUpdate.setDescription(taskDto.getDescription());
 
         if (taskDto.getExecutorId() != null) {
             var user = userRepository.findById(taskDto.getExecutorId())
-                    .orElseThrow(() -> InvalidRequestException.invalidRequest("Executor not found"));
+                    .orElseThrow(() -> InvalidRequestException.invalidReference("Executor not found"));
             taskToUpdate.setExecutor(user);
         }
 
         var taskStatus = taskStatusRepository.findById(taskDto.getTaskStatusId())
-                .orElseThrow(() -> InvalidRequestException.invalidRequest("Task status not found"));
+                .orElseThrow(() -> InvalidRequestException.invalidReference("Task status not found"));
+        if (!taskStatus.getId().equals(taskToUpdate.getTaskStatus().getId())) {
+            taskToUpdate.setStatusChangedAt(new Date());
+        }
         taskToUpdate.setTaskStatus(taskStatus);
 
         taskToUpdate.setLabels(null);
         if (taskDto.getLabelIds() != null) {
             taskDto.getLabelIds().forEach(
                     it -> labelRepository.findById(it)
-                            .orElseThrow(() -> InvalidRequestException.invalidRequest("Label not found"))
+                            .orElseThrow(() -> InvalidRequestException.invalidReference("Label not found"))
             );
             taskToUpdate.setLabels(taskDto.getLabelIds().stream()
                     .map(labelRepository::getById)
                     .collect(Collectors.toSet()));
         }
 
-        return taskRepository.save(taskToUpdate);
+        final Task saved = taskRepository.save(taskToUpdate);
+        taskInbox.assigned(saved.getId(), previousExecutorId, executorId(saved));
+        eventPublisher.publishEvent(TasksChangedEvent.forUsers(authorId(saved), previousExecutorId, executorId(saved)));
+        eventPublisher.publishEvent(LabelUsageChangedEvent.of(previousLabelIds, labelIds(saved)));
+        return responseMapper.toResponse(saved);
+    }
+
+    /**
+     * The reads run without a transaction of their own: {@link SingleFlight} opens one for the load it
+     * runs, not for the callers that wait for it.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TaskResponse getTask(Long id) {
+        return singleFlight.execute(TASK_READS, id, () -> projectionRepository.findTaskById(id)
+                .orElseThrow(() -> new NotFoundException(TASK_NOT_FOUND)));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<TaskResponse> getTasks(Predicate predicate, TaskOrder order) {
+        final String filter = (predicate == null ? "" : predicate.toString()) + " order by " + order;
+        return singleFlight.execute(TASK_LIST_READS, filter, () -> projectionRepository.findAllTasks(predicate, order));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TaskCountResponse countTasks(Predicate predicate) {
+        final String filter = predicate == null ? "" : predicate.toString();
+        return taskCountCache.count(predicate, limit -> singleFlight.execute(
+                TASK_COUNT_READS,
+                filter + " limit " + limit,
+                () -> projectionRepository.countTasks(predicate, limit)));
     }
 
+    /**
+     * The ids come from the executor's inbox, the tasks from a single query; the executor is checked
+     * again in case the inbox has not yet seen a reassignment that just committed. An inbox of more than
+     * {@link TaskRepository#MAX_FILTER_VALUES} ids is not bound as an IN list: the executor index alone
+     * serves it better and stays clear of the driver's bind parameter limit.
+     */
     @Override
-    public Task getTask(Long id) {
-        return taskRepository.findById(id)
-                .orElseThrow(() -> new NoSuchElementException("Task not found"));
+    @Transactional(readOnly = true)
+    public List<TaskResponse> getMyTasks() {
+        final Long userId = userService.getCurrentUser().getId();
+        final Collection<Long> ids = taskInbox.getTaskIds(userId, executorId -> queryFactory.select(TASK.id)
+                .from(TASK)
+                .where(TASK.executor.id.eq(executorId))
+                .fetch());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        if (ids.size() > TaskRepository.MAX_FILTER_VALUES) {
+            return projectionRepository.findAllTasks(TASK.executor.id.eq(userId));
+        }
+        return projectionRepository.findAllTasks(TASK.id.in(ids).and(TASK.executor.id.eq(userId)));
+    }
+
+    /**
+     * Every write to tasks publishes the event, also the import and the archive.
+     */
+    @EventListener
+    public void onTasksChanged(TasksChangedEvent event) {
+        singleFlight.forget(TASK_READS);
+        singleFlight.forget(TASK_LIST_READS);
+        singleFlight.forget(TASK_COUNT_READS);
+        taskCountCache.invalidate();
+        invalidationBus.publish(TASKS_CACHE, event.allUsers()
+                ? List.of(InvalidationBus.ALL)
+                : event.userIds().stream().map(String::valueOf).toList());
     }
 
     @Override
     public void deleteTask(Long id) {
         final Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new NoSuchElementException("Task not found"));
+                .orElseThrow(() -> new NotFoundException(TASK_NOT_FOUND));
+        final Set<Long> labelIds = labelIds(task);
         taskRepository.delete(task);
+        taskInbox.assigned(task.getId(), executorId(task), null);
+        eventPublisher.publishEvent(TasksChangedEvent.forUsers(authorId(task), executorId(task)));
+        eventPublisher.publishEvent(LabelUsageChangedEvent.of(labelIds, Set.of()));
+    }
+
+    @Override
+    public TaskBulkUpdateResponse reassignTasks(TaskReassignmentDto dto) {
+        if (!userRepository.existsById(dto.getFromUserId())) {
+            throw new NotFoundException(USER_NOT_FOUND);
+        }
+        final User user = userRepository.findById(dto.getToUserId())
+                .orElseThrow(() -> new NotFoundException(USER_NOT_FOUND));
+        final QUser role = dto.getRole() == TaskReassignmentDto.Role.AUTHOR ? TASK.author : TASK.executor;
+
+        entityManager.flush();
+        final long updated = queryFactory.update(TASK)
+                .set(role, user)
+                .where(role.id.eq(dto.getFromUserId()), withLabel(dto.getLabelId()))
+                .execute();
+        entityManager.clear();
+
+        if (dto.getRole() == TaskReassignmentDto.Role.EXECUTOR) {
+            taskInbox.invalidate(dto.getFromUserId(), dto.getToUserId());
+        }
+        eventPublisher.publishEvent(TasksChangedEvent.forUsers(dto.getFromUserId(), dto.getToUserId()));
+        return new TaskBulkUpdateResponse(updated);
+    }
+
+    /**
+     * Moves only the caller's own tasks, those they wrote, unless the caller is an admin.
+     */
+    @Override
+    public TaskBulkUpdateResponse moveTasks(TaskStatusMoveDto dto) {
+        if (!taskStatusRepository.existsById(dto.getFromStatusId())) {
+            throw new NotFoundException(TASK_STATUS_NOT_FOUND);
+        }
+        final Long authorId = userService.isCurrentUserAdmin() ? null : userService.getCurrentUser().getId();
+        final TaskStatus taskStatus = taskStatusRepository.findById(dto.getToStatusId())
+                .orElseThrow(() -> new NotFoundException(TASK_STATUS_NOT_FOUND));
+
+        entityManager.flush();
+        final long updated = queryFactory.update(TASK)
+                .set(TASK.taskStatus, taskStatus)
+                .set(TASK.statusChangedAt, new Date())
+                .where(TASK.taskStatus.id.eq(dto.getFromStatusId()), withLabel(dto.getLabelId()),
+                        authorId == null ? null : TASK.author.id.eq(authorId))
+                .execute();
+        entityManager.clear();
+
+        eventPublisher.publishEvent(TasksChangedEvent.all());
+        return new TaskBulkUpdateResponse(updated);
+    }
+
+    /**
+     * Uncorrelated subquery, so the bulk update stays a single {@code UPDATE ... WHERE id IN (...)}.
+     */
+    private static BooleanExpression withLabel(Long labelId) {
+        if (labelId == null) {
+            return null;
+        }
+        return TASK.id.in(JPAExpressions.select(LABELLED.id)
+                .from(LABELLED)
+                .join(LABELLED.labels, LABEL)
+                .where(LABEL.id.eq(labelId)));
+    }
+
+    private static Long authorId(Task task) {
+        return task.getAuthor() == null ? null : task.getAuthor().getId();
+    }
+
+    private static Long executorId(Task task) {
+        return task.getExecutor() == null ? null : task.getExecutor().getId();
+    }
 
+    private static Set<Long> labelIds(Task task) {
+        return task.getLabels() == null
+                ? Set.of()
+                : task.getLabels().stream().map(Label::getId).collect(Collectors.toSet());
     }
 }
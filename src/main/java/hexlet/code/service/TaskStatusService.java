@@ -1,15 +1,19 @@
 package hexlet.code.service;
 
 import hexlet.code.dto.TaskStatusDto;
-import hexlet.code.model.TaskStatus;
+import hexlet.code.dto.TaskStatusResponse;
+
+import java.util.List;
 
 public interface TaskStatusService {
 
-    TaskStatus createTaskStatus(TaskStatusDto taskStatusDto);
+    TaskStatusResponse createTaskStatus(TaskStatusDto taskStatusDto);
+
+    TaskStatusResponse updateTaskStatus(Long id, TaskStatusDto taskStatusDto);
 
-    TaskStatus updateTaskStatus(Long id, TaskStatusDto taskStatusDto);
+    TaskStatusResponse getTaskStatus(Long id);
 
-    TaskStatus getTaskStatus(Long id);
+    List<TaskStatusResponse> getTaskStatuses();
 
     void deleteTaskStatus(Long id);
 }
@@ -1,50 +1,92 @@
 package hexlet.code.service;
 
+import hexlet.code.component.SingleFlight;
 import hexlet.code.dto.TaskStatusDto;
+import hexlet.code.dto.TaskStatusResponse;
+import hexlet.code.event.TasksChangedEvent;
+import hexlet.code.exceptions.EntityInUseException;
+import hexlet.code.exceptions.NotFoundException;
+import hexlet.code.mapper.ResponseMapper;
 import hexlet.code.model.TaskStatus;
+import hexlet.code.repository.ProjectionRepository;
+import hexlet.code.repository.TaskRepository;
 import hexlet.code.repository.TaskStatusRepository;
 import lombok.AllArgsConstructor;
-import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.NoSuchElementException;
+import java.util.List;
+import java.util.Map;
+
+import static hexlet.code.exceptions.ErrorCode.TASK_STATUS_NOT_FOUND;
 
 @Service
 @Transactional
 @AllArgsConstructor
 public class TaskStatusServiceImpl implements TaskStatusService {
 
+    public static final String TASK_STATUS_READS = "task-status";
+    public static final String TASK_STATUS_LIST_READS = "task-statuses";
+
     private final TaskStatusRepository taskStatusRepository;
+    private final ResponseMapper responseMapper;
+    private final ProjectionRepository projectionRepository;
+    private final TaskRepository taskRepository;
+    private final SingleFlight singleFlight;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
-    public TaskStatus createTaskStatus(TaskStatusDto taskStatusDto) {
+    public TaskStatusResponse createTaskStatus(TaskStatusDto taskStatusDto) {
         final TaskStatus taskStatus = new TaskStatus();
         taskStatus.setName(taskStatusDto.getName());
-        return taskStatusRepository.save(taskStatus);
+        forgetReads();
+        return responseMapper.toResponse(taskStatusRepository.save(taskStatus));
     }
 
     @Override
-    public TaskStatus updateTaskStatus(Long id, TaskStatusDto taskStatusDto) {
+    public TaskStatusResponse updateTaskStatus(Long id, TaskStatusDto taskStatusDto) {
         final TaskStatus taskStatusToUpdate = taskStatusRepository.findById(id)
-                .orElseThrow(() -> new NoSuchElementException("Task status not found"));
+                .orElseThrow(() -> new NotFoundException(TASK_STATUS_NOT_FOUND));
         taskStatusToUpdate.setName(taskStatusDto.getName());
-        return taskStatusRepository.save(taskStatusToUpdate);
+        forgetReads();
+        // the tasks in the status embed its name, on the other instances too
+        eventPublisher.publishEvent(TasksChangedEvent.all());
+        return responseMapper.toResponse(taskStatusRepository.save(taskStatusToUpdate));
     }
 
     @Override
-    public TaskStatus getTaskStatus(Long id) {
-        return taskStatusRepository.findById(id)
-                .orElseThrow(() -> new NoSuchElementException("Task status not found"));
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TaskStatusResponse getTaskStatus(Long id) {
+        return singleFlight.execute(TASK_STATUS_READS, id, () -> projectionRepository.findTaskStatusById(id)
+                .orElseThrow(() -> new NotFoundException(TASK_STATUS_NOT_FOUND)));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<TaskStatusResponse> getTaskStatuses() {
+        return singleFlight.execute(TASK_STATUS_LIST_READS, "", projectionRepository::findAllTaskStatuses);
     }
 
     @Override
     public void deleteTaskStatus(Long id) {
         final TaskStatus taskStatus = taskStatusRepository.findById(id)
-                .orElseThrow(() -> new NoSuchElementException("Task status not found"));
-        if (taskStatus.getTasks() != null && !(taskStatus.getTasks().isEmpty())) {
-            throw new DataIntegrityViolationException("Cannot delete the task status. The task status has tasks");
+                .orElseThrow(() -> new NotFoundException(TASK_STATUS_NOT_FOUND));
+        if (taskRepository.existsByTaskStatusId(id)) {
+            throw new EntityInUseException("Cannot delete the task status. The task status has tasks",
+                    Map.of("tasks", taskRepository.countByTaskStatusId(id)));
         }
         taskStatusRepository.delete(taskStatus);
+        forgetReads();
+    }
+
+    /**
+     * A task response carries its status, so {@link TaskServiceImp} declares the task reads dependent on
+     * {@link #TASK_STATUS_READS}; a renamed or deleted status drops them as well.
+     */
+    private void forgetReads() {
+        singleFlight.forget(TASK_STATUS_READS);
+        singleFlight.forget(TASK_STATUS_LIST_READS);
     }
 }
@@ -0,0 +1,14 @@
+package hexlet.code.service;
+
+import hexlet.code.dto.TaskImportResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface TaskTransferService {
+
+    void exportTasks(OutputStream outputStream) throws IOException;
+
+    TaskImportResponse importTasks(InputStream inputStream) throws IOException;
+}
@@ -0,0 +1,192 @@
+package hexlet.code.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import hexlet.code.component.TaskInbox;
+import hexlet.code.dto.TaskExportDto;
+import hexlet.code.dto.TaskImportResponse;
+import hexlet.code.event.LabelUsageChangedEvent;
+import hexlet.code.event.TasksChangedEvent;
+import hexlet.code.exceptions.InvalidRequestException;
+import hexlet.code.model.Label;
+import hexlet.code.model.QLabel;
+import hexlet.code.model.QTask;
+import hexlet.code.model.Task;
+import hexlet.code.model.TaskStatus;
+import hexlet.code.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.hibernate.annotations.QueryHints.FETCH_SIZE;
+import static org.hibernate.annotations.QueryHints.READ_ONLY;
+
+/**
+ * Streams the task table as NDJSON and loads it back. Both directions work in chunks of
+ * {@code tasks.transfer.batch-size} rows, so memory use does not depend on the table size.
+ */
+@Service
+public class TaskTransferServiceImpl implements TaskTransferService {
+
+    private static final QTask TASK = QTask.task;
+    private static final QLabel LABEL = QLabel.label;
+
+    private final EntityManager entityManager;
+    private final JPAQueryFactory queryFactory;
+    private final ObjectMapper objectMapper;
+    private final UserService userService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskInbox taskInbox;
+    private final int batchSize;
+
+    public TaskTransferServiceImpl(final EntityManager entityManager,
+                                   final JPAQueryFactory queryFactory,
+                                   final ObjectMapper objectMapper,
+                                   final UserService userService,
+                                   final ApplicationEventPublisher eventPublisher,
+                                   final TaskInbox taskInbox,
+                                   @Value("${tasks.transfer.batch-size:500}") final int batchSize) {
+        this.entityManager = entityManager;
+        this.queryFactory = queryFactory;
+        this.objectMapper = objectMapper;
+        this.userService = userService;
+        this.eventPublisher = eventPublisher;
+        this.taskInbox = taskInbox;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTasks(final OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+             var rows = queryFactory.select(TASK.id, TASK.name, TASK.description, TASK.taskStatus.id,
+                             TASK.author.id, TASK.executor.id, TASK.createdAt)
+                     .from(TASK)
+                     .orderBy(TASK.id.asc())
+                     .setHint(FETCH_SIZE, batchSize)
+                     .setHint(READ_ONLY, true)
+                     .iterate()) {
+            generator.setRootValueSeparator(null);
+
+            final List<Tuple> chunk = new ArrayList<>(batchSize);
+            while (rows.hasNext()) {
+                chunk.add(rows.next());
+                if (chunk.size() == batchSize) {
+                    writeChunk(generator, chunk);
+                }
+            }
+            writeChunk(generator, chunk);
+        }
+    }
+
+    private void writeChunk(final JsonGenerator generator, final List<Tuple> chunk) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        final Map<Long, List<Long>> labelIds = findLabelIds(chunk.stream().map(row -> row.get(TASK.id)).toList());
+        for (Tuple row : chunk) {
+            generator.writeObject(new TaskExportDto(
+                    row.get(TASK.id),
+                    row.get(TASK.name),
+                    row.get(TASK.description),
+                    row.get(TASK.taskStatus.id),
+                    row.get(TASK.author.id),
+                    row.get(TASK.executor.id),
+                    labelIds.getOrDefault(row.get(TASK.id), List.of()),
+                    row.get(TASK.createdAt)
+            ));
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+        chunk.clear();
+        entityManager.clear();
+    }
+
+    private Map<Long, List<Long>> findLabelIds(final List<Long> taskIds) {
+        return queryFactory.select(TASK.id, LABEL.id)
+                .from(TASK)
+                .join(TASK.labels, LABEL)
+                .where(TASK.id.in(taskIds))
+                .fetch()
+                .stream()
+                .collect(Collectors.groupingBy(
+                        row -> row.get(TASK.id),
+                        HashMap::new,
+                        Collectors.mapping(row -> row.get(LABEL.id), Collectors.toList())
+                ));
+    }
+
+    @Override
+    @Transactional
+    public TaskImportResponse importTasks(final InputStream inputStream) throws IOException {
+        final Long currentUserId = userService.getCurrentUser().getId();
+        long imported = 0;
+
+        try (MappingIterator<TaskExportDto> lines = objectMapper.readerFor(TaskExportDto.class)
+                .readValues(inputStream)) {
+            while (lines.hasNextValue()) {
+                final TaskExportDto line = lines.nextValue();
+                entityManager.persist(toTask(line, currentUserId, imported + 1));
+                imported++;
+                if (imported % batchSize == 0) {
+                    flushAndClear(imported);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw InvalidRequestException.invalidRequest("Line " + (imported + 1) + ": " + e.getOriginalMessage());
+        }
+        flushAndClear(imported);
+        taskInbox.invalidateAll();
+        eventPublisher.publishEvent(TasksChangedEvent.all());
+        eventPublisher.publishEvent(LabelUsageChangedEvent.all());
+        return new TaskImportResponse(imported);
+    }
+
+    private Task toTask(final TaskExportDto line, final Long currentUserId, final long lineNumber) {
+        if (line.name() == null || line.name().isBlank() || line.taskStatusId() == null) {
+            throw InvalidRequestException.invalidRequest("Line " + lineNumber + ": name and taskStatusId are required");
+        }
+        final Task task = new Task();
+        task.setName(line.name());
+        task.setDescription(line.description());
+        task.setTaskStatus(entityManager.getReference(TaskStatus.class, line.taskStatusId()));
+        task.setAuthor(entityManager.getReference(User.class,
+                line.authorId() == null ? currentUserId : line.authorId()));
+        if (line.executorId() != null) {
+            task.setExecutor(entityManager.getReference(User.class, line.executorId()));
+        }
+        if (line.labelIds() != null && !line.labelIds().isEmpty()) {
+            task.setLabels(line.labelIds().stream()
+                    .map(id -> entityManager.getReference(Label.class, id))
+                    .collect(Collectors.toSet()));
+        }
+        return task;
+    }
+
+    private void flushAndClear(final long imported) {
+        try {
+            entityManager.flush();
+        } catch (PersistenceException e) {
+            throw new DataIntegrityViolationException(
+                    "Cannot import tasks: the batch ending at line " + imported + " is invalid", e);
+        }
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,10 @@
+package hexlet.code.service;
+
+import hexlet.code.dto.TokenResponse;
+
+public interface TokenService {
+
+    TokenResponse refresh(String refreshToken);
+
+    void revoke(String accessToken, String refreshToken);
+}
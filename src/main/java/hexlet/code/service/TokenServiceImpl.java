@@ -0,0 +1,82 @@
+package hexlet.code.service;
+
+import hexlet.code.component.JWTHelper;
+import hexlet.code.component.TokenRevocations;
+import hexlet.code.dto.TokenResponse;
+import hexlet.code.exceptions.UnauthorizedException;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.Map;
+
+import static hexlet.code.component.JWTHelper.ACCESS;
+import static hexlet.code.component.JWTHelper.REFRESH;
+import static hexlet.code.component.JWTHelper.TOKEN_ID;
+import static hexlet.code.component.JWTHelper.TOKEN_TYPE;
+import static org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter.SPRING_SECURITY_FORM_USERNAME_KEY;
+
+/**
+ * Refresh tokens are rotated: each one is revoked when it is exchanged, so a stolen refresh token
+ * stops working as soon as either party uses it. Not transactional, see {@link TokenRevocations#revoke}.
+ */
+@Service
+@AllArgsConstructor
+public class TokenServiceImpl implements TokenService {
+
+    /**
+     * Revocation of a token without an expiry, kept for good.
+     */
+    private static final Date NEVER = new Date(253402214400000L);
+
+    private final JWTHelper jwtHelper;
+    private final TokenRevocations tokenRevocations;
+
+    @Override
+    public TokenResponse refresh(final String refreshToken) {
+        final Map<String, Object> claims = verify(refreshToken, REFRESH);
+        if (!tokenRevocations.revoke((String) claims.get(TOKEN_ID), getExpiration(claims))) {
+            throw new UnauthorizedException("Refresh token is revoked");
+        }
+        final Map<String, Object> attributes = Map.of(
+                SPRING_SECURITY_FORM_USERNAME_KEY, claims.get(SPRING_SECURITY_FORM_USERNAME_KEY));
+        return new TokenResponse(
+                jwtHelper.expiring(attributes),
+                jwtHelper.refreshing(attributes),
+                jwtHelper.getExpirationSec());
+    }
+
+    @Override
+    public void revoke(final String accessToken, final String refreshToken) {
+        final Map<String, Object> access = verify(accessToken, ACCESS);
+        if (refreshToken != null) {
+            final Map<String, Object> refresh = verify(refreshToken, REFRESH);
+            final Object username = refresh.get(SPRING_SECURITY_FORM_USERNAME_KEY);
+            if (!username.equals(access.get(SPRING_SECURITY_FORM_USERNAME_KEY))) {
+                throw new UnauthorizedException("Refresh token belongs to another user");
+            }
+            tokenRevocations.revoke((String) refresh.get(TOKEN_ID), getExpiration(refresh));
+        }
+        tokenRevocations.revoke((String) access.get(TOKEN_ID), getExpiration(access));
+    }
+
+    private Map<String, Object> verify(final String token, final String type) {
+        final Map<String, Object> claims;
+        try {
+            claims = jwtHelper.verify(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new UnauthorizedException("Invalid token: " + e.getMessage());
+        }
+        if (!type.equals(claims.getOrDefault(TOKEN_TYPE, ACCESS)) || claims.get(TOKEN_ID) == null) {
+            throw new UnauthorizedException("Expected " + type + " token");
+        }
+        return claims;
+    }
+
+    private static Date getExpiration(final Map<String, Object> claims) {
+        final Object expiration = claims.get(Claims.EXPIRATION);
+        return expiration instanceof Number seconds ? new Date(seconds.longValue() * 1000) : NEVER;
+    }
+}
@@ -1,19 +1,22 @@
 package hexlet.code.service;
 
 import hexlet.code.dto.UserDto;
+import hexlet.code.dto.UserResponse;
 import hexlet.code.model.User;
 
 public interface UserService {
 
-    User createNewUser(UserDto userDto);
+    UserResponse createNewUser(UserDto userDto);
 
-    User updateUser(Long id, UserDto userDto);
+    UserResponse updateUser(Long id, UserDto userDto);
 
-    User getUser(Long id);
+    UserResponse getUser(Long id);
 
     void deleteUser(Long id);
 
     String getCurrentUserName();
 
     User getCurrentUser();
+
+    boolean isCurrentUserAdmin();
 }
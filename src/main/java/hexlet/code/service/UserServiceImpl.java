@@ -1,10 +1,17 @@
 package hexlet.code.service;
 
 import hexlet.code.dto.UserDto;
+import hexlet.code.dto.UserResponse;
+import hexlet.code.event.TasksChangedEvent;
+import hexlet.code.exceptions.EntityInUseException;
+import hexlet.code.exceptions.NotFoundException;
+import hexlet.code.mapper.ResponseMapper;
 import hexlet.code.model.User;
+import hexlet.code.repository.ProjectionRepository;
+import hexlet.code.repository.TaskRepository;
 import hexlet.code.repository.UserRepository;
 import lombok.AllArgsConstructor;
-import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -13,9 +20,12 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.NoSuchElementException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
+import static hexlet.code.config.security.SecurityConfig.ADMIN;
 import static hexlet.code.config.security.SecurityConfig.DEFAULT_AUTHORITIES;
+import static hexlet.code.exceptions.ErrorCode.USER_NOT_FOUND;
 
 @Service
 @Transactional
@@ -26,40 +36,52 @@ public class UserServiceImpl implements UserService, UserDetailsService {
 
     private final PasswordEncoder passwordEncoder;
 
+    private final ResponseMapper responseMapper;
+
+    private final ProjectionRepository projectionRepository;
+
+    private final TaskRepository taskRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
     @Override
-    public User createNewUser(final UserDto userDto) {
+    public UserResponse createNewUser(final UserDto userDto) {
         final User user = new User();
         user.setEmail(userDto.getEmail());
         user.setFirstName(userDto.getFirstName());
         user.setLastName(userDto.getLastName());
         user.setPassword(passwordEncoder.encode(userDto.getPassword()));
-        return userRepository.save(user);
+        return responseMapper.toResponse(userRepository.save(user));
     }
 
     @Override
-    public User updateUser(final Long id, final UserDto userDto) {
+    public UserResponse updateUser(final Long id, final UserDto userDto) {
         final User userToUpdate = userRepository.findById(id)
-                .orElseThrow(() -> new NoSuchElementException("User not found"));
+                .orElseThrow(() -> new NotFoundException(USER_NOT_FOUND));
         userToUpdate.setEmail(userDto.getEmail());
         userToUpdate.setFirstName(userDto.getFirstName());
         userToUpdate.setLastName(userDto.getLastName());
         userToUpdate.setPassword(passwordEncoder.encode(userDto.getPassword()));
-        return userRepository.save(userToUpdate);
+        // the tasks of the user embed the name and email
+        eventPublisher.publishEvent(TasksChangedEvent.forUsers(id));
+        return responseMapper.toResponse(userRepository.save(userToUpdate));
     }
 
     @Override
-    public User getUser(Long id) {
-        return userRepository.findById(id)
-                .orElseThrow(() -> new NoSuchElementException("User not found"));
+    public UserResponse getUser(Long id) {
+        return projectionRepository.findUserById(id)
+                .orElseThrow(() -> new NotFoundException(USER_NOT_FOUND));
     }
 
     @Override
     public void deleteUser(Long id) {
         final User user = userRepository.findById(id)
-                .orElseThrow(() -> new NoSuchElementException("User not found"));
-        if ((user.getExecutorTasks() != null && !(user.getExecutorTasks().isEmpty())) || (user.getAuthorTasks() != null
-                && !(user.getAuthorTasks().isEmpty()))) {
-            throw new DataIntegrityViolationException("Cannot delete the user. The user has tasks");
+                .orElseThrow(() -> new NotFoundException(USER_NOT_FOUND));
+        if (taskRepository.existsByAuthorIdOrExecutorId(id, id)) {
+            final Map<String, Long> references = new LinkedHashMap<>();
+            references.put("authorTasks", taskRepository.countByAuthorId(id));
+            references.put("executorTasks", taskRepository.countByExecutorId(id));
+            throw new EntityInUseException("Cannot delete the user. The user has tasks", references);
         }
         userRepository.delete(user);
     }
@@ -88,4 +110,10 @@ public class UserServiceImpl implements UserService, UserDetailsService {
     public User getCurrentUser() {
         return userRepository.findByEmail(getCurrentUserName()).get();
     }
+
+    @Override
+    public boolean isCurrentUserAdmin() {
+        return SecurityContextHolder.getContext().getAuthentication().getAuthorities().stream()
+                .anyMatch(authority -> ADMIN.equals(authority.getAuthority()));
+    }
 }
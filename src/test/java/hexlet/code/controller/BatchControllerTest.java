@@ -0,0 +1,122 @@
+package hexlet.code.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.config.SpringConfig;
+import hexlet.code.dto.BatchItemResponse;
+import hexlet.code.dto.BatchRequestDto;
+import hexlet.code.dto.BatchResponse;
+import hexlet.code.dto.LabelDto;
+import hexlet.code.repository.LabelRepository;
+import hexlet.code.utils.TestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+
+import static hexlet.code.config.SpringConfig.TEST_PROFILE;
+import static hexlet.code.controller.BatchController.BATCH_CONTROLLER_PATH;
+import static hexlet.code.controller.LabelController.LABEL_CONTROLLER_PATH;
+import static hexlet.code.controller.TaskController.TASK_CONTROLLER_PATH;
+import static hexlet.code.controller.TaskStatusController.TASK_STATUS_CONTROLLER_PATH;
+import static hexlet.code.controller.UserController.USER_CONTROLLER_PATH;
+import static hexlet.code.utils.TestUtils.BASE_URL;
+import static hexlet.code.utils.TestUtils.TEST_USERNAME;
+import static hexlet.code.utils.TestUtils.asJson;
+import static hexlet.code.utils.TestUtils.fromJson;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@ActiveProfiles(TEST_PROFILE)
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = RANDOM_PORT, classes = SpringConfig.class)
+public class BatchControllerTest {
+
+    @Autowired
+    private TestUtils utils;
+
+    @Autowired
+    private LabelRepository labelRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    public void clear() {
+        utils.tearDown();
+    }
+
+    @Test
+    public void executeBatch() throws Exception {
+        utils.regDefaultUser();
+        utils.createDefaultTaskStatus(TEST_USERNAME);
+
+        final BatchRequestDto batch = new BatchRequestDto(List.of(
+                new BatchRequestDto.SubRequest("GET", BASE_URL + USER_CONTROLLER_PATH, null),
+                new BatchRequestDto.SubRequest("GET", BASE_URL + TASK_STATUS_CONTROLLER_PATH, null),
+                new BatchRequestDto.SubRequest("POST", BASE_URL + LABEL_CONTROLLER_PATH,
+                        objectMapper.valueToTree(new LabelDto("Batch label"))),
+                new BatchRequestDto.SubRequest("GET", BASE_URL + LABEL_CONTROLLER_PATH, null),
+                new BatchRequestDto.SubRequest("GET", BASE_URL + TASK_CONTROLLER_PATH + "?executorId=1", null),
+                new BatchRequestDto.SubRequest("GET", BASE_URL + TASK_CONTROLLER_PATH + "/999999", null)
+        ));
+
+        final BatchResponse response = fromJson(utils.perform(post(BASE_URL + BATCH_CONTROLLER_PATH)
+                        .content(asJson(batch))
+                        .contentType(APPLICATION_JSON), TEST_USERNAME)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(), new TypeReference<>() {
+                });
+
+        assertThat(response.responses()).extracting(BatchItemResponse::status)
+                .containsExactly(200, 200, 201, 200, 200, 404);
+        assertEquals(1, labelRepository.count());
+        // the read after the write sees it
+        assertThat(response.responses().get(3).body().toString()).contains("Batch label");
+        assertThat(response.responses().get(1).body().size()).isEqualTo(1);
+        assertThat(response.responses().get(5).body().get("code").asText()).isEqualTo("task-not-found");
+    }
+
+    @Test
+    public void nestedBatchIsRejected() throws Exception {
+        utils.regDefaultUser();
+
+        final BatchRequestDto batch = new BatchRequestDto(List.of(
+                new BatchRequestDto.SubRequest("POST", BASE_URL + BATCH_CONTROLLER_PATH, null)
+        ));
+
+        utils.perform(post(BASE_URL + BATCH_CONTROLLER_PATH)
+                        .content(asJson(batch))
+                        .contentType(APPLICATION_JSON), TEST_USERNAME)
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void disguisedBatchPathsAreRejected() throws Exception {
+        utils.regDefaultUser();
+
+        for (String path : List.of(BASE_URL + "/%62atch", BASE_URL + "//batch", BASE_URL + "/%2e%2e/api/tasks")) {
+            final BatchRequestDto batch = new BatchRequestDto(List.of(
+                    new BatchRequestDto.SubRequest("POST", path, null)
+            ));
+
+            utils.perform(post(BASE_URL + BATCH_CONTROLLER_PATH)
+                            .content(asJson(batch))
+                            .contentType(APPLICATION_JSON), TEST_USERNAME)
+                    .andExpect(status().isBadRequest());
+        }
+    }
+}
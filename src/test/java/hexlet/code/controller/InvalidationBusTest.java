@@ -0,0 +1,114 @@
+package hexlet.code.controller;
+
+import hexlet.code.component.InvalidationBus;
+import hexlet.code.component.InvalidationTransport;
+import hexlet.code.component.TaskInbox;
+import hexlet.code.component.TokenRevocations;
+import hexlet.code.config.SpringConfig;
+import hexlet.code.event.TasksChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static hexlet.code.config.SpringConfig.TEST_PROFILE;
+import static hexlet.code.service.TaskServiceImp.TASKS_CACHE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two instances of the application side by side, sharing a database and the in-memory transport.
+ */
+public class InvalidationBusTest {
+
+    private static final long USER_ID = 42L;
+
+    private ConfigurableApplicationContext first;
+    private ConfigurableApplicationContext second;
+
+    @BeforeEach
+    public void start() {
+        final String database = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        first = startInstance(database);
+        second = startInstance(database);
+    }
+
+    @AfterEach
+    public void stop() {
+        second.close();
+        first.close();
+    }
+
+    @Test
+    public void taskWritesEvictTheInboxesOfOtherInstances() {
+        final AtomicInteger loads = new AtomicInteger();
+        final TaskInbox inbox = first.getBean(TaskInbox.class);
+        inbox.getTaskIds(USER_ID, userId -> List.of((long) loads.incrementAndGet()));
+        inbox.getTaskIds(USER_ID, userId -> List.of((long) loads.incrementAndGet()));
+        assertEquals(1, loads.get());
+
+        second.publishEvent(TasksChangedEvent.forUsers(USER_ID));
+        deliver();
+
+        assertThat(inbox.getTaskIds(USER_ID, userId -> List.of((long) loads.incrementAndGet()))).containsExactly(2L);
+    }
+
+    @Test
+    public void revocationsReachOtherInstances() {
+        final String tokenId = UUID.randomUUID().toString();
+        final Date expiresAt = new Date(System.currentTimeMillis() + 60_000);
+        assertTrue(second.getBean(TokenRevocations.class).revoke(tokenId, expiresAt));
+        assertFalse(first.getBean(TokenRevocations.class).isRevoked(tokenId));
+
+        deliver();
+
+        assertTrue(first.getBean(TokenRevocations.class).isRevoked(tokenId));
+    }
+
+    @Test
+    public void missedBatchEvictsEverything() {
+        final AtomicInteger loads = new AtomicInteger();
+        final TaskInbox inbox = first.getBean(TaskInbox.class);
+        inbox.getTaskIds(USER_ID, userId -> List.of((long) loads.incrementAndGet()));
+
+        final InvalidationTransport transport = second.getBean(InvalidationTransport.class);
+        final List<InvalidationTransport.Invalidation> otherUser =
+                List.of(new InvalidationTransport.Invalidation(TASKS_CACHE, "7"));
+        transport.send(new InvalidationTransport.Batch("peer", 1, otherUser));
+        first.getBean(InvalidationBus.class).poll();
+        inbox.getTaskIds(USER_ID, userId -> List.of((long) loads.incrementAndGet()));
+        assertEquals(1, loads.get());
+
+        // batch 2 never arrives
+        transport.send(new InvalidationTransport.Batch("peer", 3, otherUser));
+        first.getBean(InvalidationBus.class).poll();
+        inbox.getTaskIds(USER_ID, userId -> List.of((long) loads.incrementAndGet()));
+        assertEquals(2, loads.get());
+    }
+
+    private void deliver() {
+        second.getBean(InvalidationBus.class).flush();
+        first.getBean(InvalidationBus.class).poll();
+    }
+
+    private static ConfigurableApplicationContext startInstance(final String database) {
+        return new SpringApplicationBuilder(SpringConfig.class)
+                .profiles(TEST_PROFILE)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + database,
+                        "invalidation.transport=memory",
+                        // the tests deliver the batches themselves
+                        "invalidation.flush-ms=3600000",
+                        "invalidation.poll-ms=3600000")
+                .run();
+    }
+}
@@ -1,8 +1,10 @@
 package hexlet.code.controller;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import hexlet.code.component.LabelSuggestions;
 import hexlet.code.config.SpringConfig;
 import hexlet.code.dto.LabelDto;
+import hexlet.code.dto.LabelSuggestion;
 import hexlet.code.dto.TaskDto;
 import hexlet.code.model.Label;
 import hexlet.code.model.TaskStatus;
@@ -22,6 +24,7 @@ import java.util.Set;
 
 import static hexlet.code.config.SpringConfig.TEST_PROFILE;
 import static hexlet.code.controller.LabelController.LABEL_CONTROLLER_PATH;
+import static hexlet.code.controller.LabelController.SUGGEST;
 import static hexlet.code.controller.TaskController.TASK_CONTROLLER_PATH;
 import static hexlet.code.controller.UserController.ID;
 import static hexlet.code.utils.TestUtils.BASE_URL;
@@ -32,6 +35,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_PROBLEM_JSON_VALUE;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -50,6 +54,9 @@ public class LabelControllerTest {
     @Autowired
     private LabelRepository labelRepository;
 
+    @Autowired
+    private LabelSuggestions labelSuggestions;
+
 
     @AfterEach
     public void clear() {
@@ -288,4 +295,85 @@ public class LabelControllerTest {
 
         assertEquals(1, labelRepository.count());
     }
+
+    @Test
+    public void getLabelByNonExistentIdReturnsProblem() throws Exception {
+        utils.regDefaultUser();
+
+        final var response = utils.perform(
+                        get(BASE_URL + LABEL_CONTROLLER_PATH + ID, 1), TEST_USERNAME)
+                .andExpect(status().isNotFound())
+                .andReturn()
+                .getResponse();
+
+        assertThat(response.getContentType()).startsWith(APPLICATION_PROBLEM_JSON_VALUE);
+        assertThat(response.getContentAsString()).contains("\"code\":\"label-not-found\"");
+        assertThat(response.getContentAsString()).contains("\"status\":404");
+        assertThat(response.getContentAsString()).contains("\"detail\":\"Label not found\"");
+    }
+
+    @Test
+    public void suggestLabels() throws Exception {
+        utils.regDefaultUser();
+        final TaskStatus taskStatus = utils.createDefaultTaskStatus(TEST_USERNAME);
+
+        // start from what is in the database, the labels of other tests were removed behind its back
+        labelSuggestions.reload();
+        final Label backend = createLabel("backend");
+        final Label bug = createLabel("Bug");
+        final Label blocker = createLabel("blocker");
+        createLabel("feature");
+        createTask("First task", taskStatus, Set.of(backend.getId(), blocker.getId()));
+        createTask("Second task", taskStatus, Set.of(backend.getId()));
+        // the usage counts follow the label changes of the task writes on the next refresh
+        labelSuggestions.refresh();
+
+        final List<LabelSuggestion> suggestions = suggest("prefix=B");
+        assertThat(suggestions).extracting(LabelSuggestion::name).containsExactly("backend", "blocker", "Bug");
+        assertThat(suggestions).extracting(LabelSuggestion::usage).containsExactly(2L, 1L, 0L);
+        assertThat(suggest("prefix=b&limit=1")).extracting(LabelSuggestion::name).containsExactly("backend");
+        assertThat(suggest("prefix=bu")).extracting(LabelSuggestion::id).containsExactly(bug.getId());
+        assertThat(suggest("prefix=x")).isEmpty();
+        assertThat(suggest("")).extracting(LabelSuggestion::name).first().isEqualTo("backend");
+
+        utils.perform(put(BASE_URL + LABEL_CONTROLLER_PATH + ID, bug.getId())
+                        .content(asJson(new LabelDto("Defect")))
+                        .contentType(APPLICATION_JSON), TEST_USERNAME)
+                .andExpect(status().isOk());
+        assertThat(suggest("prefix=bu")).isEmpty();
+        assertThat(suggest("prefix=def")).extracting(LabelSuggestion::id).containsExactly(bug.getId());
+
+        utils.perform(delete(BASE_URL + LABEL_CONTROLLER_PATH + ID, bug.getId()), TEST_USERNAME)
+                .andExpect(status().isOk());
+        assertThat(suggest("prefix=def")).isEmpty();
+    }
+
+    private Label createLabel(final String name) throws Exception {
+        final var response = utils.perform(post(BASE_URL + LABEL_CONTROLLER_PATH)
+                        .content(asJson(new LabelDto(name)))
+                        .contentType(APPLICATION_JSON), TEST_USERNAME)
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse();
+        return fromJson(response.getContentAsString(), new TypeReference<>() {
+        });
+    }
+
+    private void createTask(final String name, final TaskStatus taskStatus, final Set<Long> labelIds)
+            throws Exception {
+        utils.perform(post(BASE_URL + TASK_CONTROLLER_PATH)
+                        .content(asJson(new TaskDto(name, null, null, taskStatus.getId(), labelIds)))
+                        .contentType(APPLICATION_JSON), TEST_USERNAME)
+                .andExpect(status().isCreated());
+    }
+
+    private List<LabelSuggestion> suggest(final String query) throws Exception {
+        final var response = utils.perform(get(BASE_URL + LABEL_CONTROLLER_PATH + SUGGEST + "?" + query),
+                        TEST_USERNAME)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        return fromJson(response.getContentAsString(), new TypeReference<>() {
+        });
+    }
 }
@@ -0,0 +1,87 @@
+package hexlet.code.controller;
+
+import hexlet.code.config.SpringConfig;
+import hexlet.code.dto.UserDto;
+import hexlet.code.utils.TestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static hexlet.code.config.SpringConfig.TEST_PROFILE;
+import static hexlet.code.controller.LabelController.LABEL_CONTROLLER_PATH;
+import static hexlet.code.controller.TaskStatusController.TASK_STATUS_CONTROLLER_PATH;
+import static hexlet.code.filter.RateLimitFilter.LIMIT_HEADER;
+import static hexlet.code.filter.RateLimitFilter.REMAINING_HEADER;
+import static hexlet.code.utils.TestUtils.BASE_URL;
+import static hexlet.code.utils.TestUtils.TEST_USERNAME;
+import static hexlet.code.utils.TestUtils.TEST_USERNAME_2;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+import static org.springframework.http.MediaType.APPLICATION_PROBLEM_JSON_VALUE;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@ActiveProfiles(TEST_PROFILE)
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = RANDOM_PORT, classes = SpringConfig.class,
+        properties = {"rate-limit.read-limit=3", "rate-limit.write-limit=2"})
+public class RateLimitTest {
+
+    @Autowired
+    private TestUtils utils;
+
+    @AfterEach
+    public void clear() {
+        utils.tearDown();
+    }
+
+    @Test
+    public void readsOverBudgetAreRejected() throws Exception {
+        utils.regDefaultUser();
+
+        for (int remaining = 2; remaining >= 0; remaining--) {
+            utils.perform(get(BASE_URL + TASK_STATUS_CONTROLLER_PATH), TEST_USERNAME)
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(LIMIT_HEADER, "3"))
+                    .andExpect(header().string(REMAINING_HEADER, String.valueOf(remaining)));
+        }
+
+        final var response = utils.perform(get(BASE_URL + TASK_STATUS_CONTROLLER_PATH), TEST_USERNAME)
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(REMAINING_HEADER, "0"))
+                .andExpect(header().exists(RETRY_AFTER))
+                .andReturn()
+                .getResponse();
+
+        assertThat(response.getContentType()).startsWith(APPLICATION_PROBLEM_JSON_VALUE);
+        assertThat(response.getContentAsString()).contains("\"code\":\"rate-limited\"");
+
+        // other route classes and the write budget are counted separately
+        utils.perform(get(BASE_URL + LABEL_CONTROLLER_PATH), TEST_USERNAME)
+                .andExpect(status().isOk());
+        utils.createDefaultLabel(TEST_USERNAME);
+    }
+
+    @Test
+    public void unknownPathsShareOneBudget() throws Exception {
+        utils.regUser(new UserDto(TEST_USERNAME_2, "First", "Last", "123"))
+                .andExpect(status().isCreated());
+
+        for (int remaining = 2; remaining >= 0; remaining--) {
+            utils.perform(get(BASE_URL + "/unknown-" + remaining), TEST_USERNAME_2)
+                    .andExpect(status().isNotFound())
+                    .andExpect(header().string(REMAINING_HEADER, String.valueOf(remaining)));
+        }
+
+        utils.perform(get(BASE_URL + "/unknown-3"), TEST_USERNAME_2)
+                .andExpect(status().isTooManyRequests());
+    }
+}
@@ -0,0 +1,77 @@
+package hexlet.code.controller;
+
+import hexlet.code.component.ErrorReporter;
+import hexlet.code.config.SpringConfig;
+import hexlet.code.utils.TestUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static hexlet.code.component.ErrorReporter.REPORTS_METRIC;
+import static hexlet.code.config.SpringConfig.TEST_PROFILE;
+import static hexlet.code.controller.RollbarStubController.ITEM;
+import static hexlet.code.controller.RollbarStubController.ROLLBAR_STUB_PATH;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@ActiveProfiles(TEST_PROFILE)
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = RANDOM_PORT, classes = SpringConfig.class)
+public class RollbarStubControllerTest {
+
+    @Autowired
+    private TestUtils utils;
+
+    @Autowired
+    private ErrorReporter errorReporter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void acceptItem() throws Exception {
+        utils.perform(post(ROLLBAR_STUB_PATH + ITEM)
+                        .content("{\"access_token\":\"\",\"data\":{\"level\":\"error\"}}")
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        final var response = utils.perform(get(ROLLBAR_STUB_PATH + ITEM))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+
+        assertThat(response.getContentAsString()).contains("\"level\":\"error\"");
+    }
+
+    @Test
+    public void repeatedErrorsAreReportedOnce() {
+        final double queued = reports("queued");
+        final double suppressed = reports("suppressed");
+
+        for (int i = 0; i < 3; i++) {
+            errorReporter.report(failure(), "GET /api/tasks");
+        }
+
+        assertEquals(queued + 1, reports("queued"));
+        assertEquals(suppressed + 2, reports("suppressed"));
+    }
+
+    private static RuntimeException failure() {
+        return new IllegalStateException("Connection refused");
+    }
+
+    private double reports(final String result) {
+        return meterRegistry.counter(REPORTS_METRIC, "result", result).count();
+    }
+}
@@ -0,0 +1,95 @@
+package hexlet.code.controller;
+
+import hexlet.code.config.SpringConfig;
+import hexlet.code.utils.TestUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.concurrent.TimeUnit;
+
+import static hexlet.code.component.SqlTracker.CONNECTION_HELD_METRIC;
+import static hexlet.code.component.SqlTracker.ROUTE;
+import static hexlet.code.config.SpringConfig.TEST_PROFILE;
+import static hexlet.code.controller.TaskController.TASK_CONTROLLER_PATH;
+import static hexlet.code.controller.UserController.USER_CONTROLLER_PATH;
+import static hexlet.code.filter.RequestTracingFilter.REQUEST_ID_HEADER;
+import static hexlet.code.utils.TestUtils.BASE_URL;
+import static hexlet.code.utils.TestUtils.TEST_USERNAME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@ActiveProfiles(TEST_PROFILE)
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = RANDOM_PORT, classes = SpringConfig.class)
+public class SqlTracingTest {
+
+    private static final String SLOW_QUERIES = "/actuator/slowqueries";
+
+    @Autowired
+    private TestUtils utils;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    public void clear() {
+        utils.tearDown();
+    }
+
+    @Test
+    public void requestIdIsKeptOrGenerated() throws Exception {
+        utils.perform(get(BASE_URL + USER_CONTROLLER_PATH).header(REQUEST_ID_HEADER, "abc-123"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(REQUEST_ID_HEADER, "abc-123"));
+
+        final String generated = utils.perform(get(BASE_URL + USER_CONTROLLER_PATH)
+                        .header(REQUEST_ID_HEADER, "forged\nline"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(REQUEST_ID_HEADER);
+        assertThat(generated).isNotBlank().doesNotContain("\n");
+    }
+
+    @Test
+    public void slowestStatementsByRoute() throws Exception {
+        utils.regDefaultUser();
+        utils.createDefaultTask(TEST_USERNAME);
+        utils.perform(get(BASE_URL + TASK_CONTROLLER_PATH), TEST_USERNAME)
+                .andExpect(status().isOk());
+
+        final String body = utils.perform(get(SLOW_QUERIES), TEST_USERNAME)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        assertThat(body).contains("GET " + BASE_URL + TASK_CONTROLLER_PATH, "from tasks");
+    }
+
+    @Test
+    public void connectionHoldTimeByRoute() throws Exception {
+        utils.regDefaultUser();
+        utils.createDefaultTask(TEST_USERNAME);
+        utils.perform(get(BASE_URL + TASK_CONTROLLER_PATH), TEST_USERNAME)
+                .andExpect(status().isOk());
+
+        final Timer held = meterRegistry.find(CONNECTION_HELD_METRIC)
+                .tag(ROUTE, "GET " + BASE_URL + TASK_CONTROLLER_PATH)
+                .timer();
+        assertThat(held).isNotNull();
+        assertThat(held.count()).isPositive();
+        assertThat(held.totalTime(TimeUnit.NANOSECONDS)).isPositive();
+    }
+}
@@ -0,0 +1,82 @@
+package hexlet.code.controller;
+
+import hexlet.code.config.SpringConfig;
+import hexlet.code.model.User;
+import hexlet.code.repository.UserRepository;
+import hexlet.code.utils.TestUtils;
+import org.hibernate.LazyInitializationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import static hexlet.code.config.SpringConfig.TEST_PROFILE;
+import static hexlet.code.utils.TestUtils.TEST_USERNAME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+@AutoConfigureMockMvc
+@ActiveProfiles(TEST_PROFILE)
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = RANDOM_PORT, classes = SpringConfig.class)
+public class StrictLazyLoadingTest {
+
+    @Autowired
+    private TestUtils utils;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long userId;
+
+    @BeforeEach
+    public void before() throws Exception {
+        utils.regDefaultUser();
+        userId = userRepository.findByEmail(TEST_USERNAME).get().getId();
+    }
+
+    @AfterEach
+    public void clear() {
+        utils.tearDown();
+    }
+
+    @Test
+    public void lazyLoadWithOpenSessionOutsideTransactionFails() {
+        final EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            final User user = entityManager.find(User.class, userId);
+            assertThrows(LazyInitializationException.class, () -> user.getAuthorTasks().size());
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Test
+    public void lazyLoadInsideTransaction() {
+        final Integer authorTasks = transactionTemplate.execute(status -> {
+            final EntityManager entityManager = entityManagerFactory.createEntityManager();
+            try {
+                return entityManager.find(User.class, userId).getAuthorTasks().size();
+            } finally {
+                entityManager.close();
+            }
+        });
+        assertEquals(0, authorTasks);
+    }
+}
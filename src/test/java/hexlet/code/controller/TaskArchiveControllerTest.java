@@ -0,0 +1,189 @@
+package hexlet.code.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import hexlet.code.config.SpringConfig;
+import hexlet.code.dto.ArchivePolicyDto;
+import hexlet.code.dto.ArchivedTaskResponse;
+import hexlet.code.dto.TaskArchiveResponse;
+import hexlet.code.dto.TaskDto;
+import hexlet.code.dto.UserDto;
+import hexlet.code.model.Label;
+import hexlet.code.model.Task;
+import hexlet.code.model.TaskStatus;
+import hexlet.code.repository.TaskRepository;
+import hexlet.code.utils.TestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static hexlet.code.config.SpringConfig.TEST_PROFILE;
+import static hexlet.code.controller.TaskArchiveController.ARCHIVE_CONTROLLER_PATH;
+import static hexlet.code.controller.TaskArchiveController.JOBS;
+import static hexlet.code.controller.TaskArchiveController.JOB_ID;
+import static hexlet.code.controller.TaskArchiveController.RESTORE;
+import static hexlet.code.controller.TaskController.TASK_CONTROLLER_PATH;
+import static hexlet.code.controller.UserController.ID;
+import static hexlet.code.utils.TestUtils.ADMIN_USERNAME;
+import static hexlet.code.utils.TestUtils.BASE_URL;
+import static hexlet.code.utils.TestUtils.TEST_USERNAME;
+import static hexlet.code.utils.TestUtils.TEST_USERNAME_2;
+import static hexlet.code.utils.TestUtils.asJson;
+import static hexlet.code.utils.TestUtils.fromJson;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@ActiveProfiles(TEST_PROFILE)
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = RANDOM_PORT, classes = SpringConfig.class)
+public class TaskArchiveControllerTest {
+
+    private static final int MAX_POLLS = 50;
+    private static final long POLL_INTERVAL_MS = 100;
+
+    @Autowired
+    private TestUtils utils;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @AfterEach
+    public void clear() {
+        utils.tearDown();
+    }
+
+    @Test
+    public void archiveAndRestoreTask() throws Exception {
+        utils.regDefaultUser();
+        regAdmin();
+        final TaskStatus taskStatus = utils.createDefaultTaskStatus(TEST_USERNAME);
+        final Label label = utils.createDefaultLabel(TEST_USERNAME);
+        final Task task = fromJson(utils.perform(post(BASE_URL + TASK_CONTROLLER_PATH)
+                        .content(asJson(new TaskDto("Old task", null, null, taskStatus.getId(), Set.of(label.getId()))))
+                        .contentType(APPLICATION_JSON), TEST_USERNAME)
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(), new TypeReference<>() {
+                });
+
+        // archive everything in the status
+        final TaskArchiveResponse job = archive(new ArchivePolicyDto(taskStatus.getId(), 0));
+
+        assertEquals(TaskArchiveResponse.Status.DONE, job.status());
+        assertEquals(1, job.archived());
+        assertEquals(0, taskRepository.count());
+
+        // readable from the archive
+        final List<ArchivedTaskResponse> archived = fromJson(utils.perform(
+                        get(BASE_URL + ARCHIVE_CONTROLLER_PATH), TEST_USERNAME)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(), new TypeReference<>() {
+                });
+
+        assertEquals(1, archived.size());
+        assertEquals(task.getId(), archived.get(0).id());
+        assertEquals("Old task", archived.get(0).name());
+        assertEquals(List.of(label.getId()), archived.get(0).labelIds());
+
+        // restore with the same id and labels
+        final Task restored = fromJson(utils.perform(
+                        post(BASE_URL + ARCHIVE_CONTROLLER_PATH + ID + RESTORE, task.getId()), TEST_USERNAME)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(), new TypeReference<>() {
+                });
+
+        assertEquals(task.getId(), restored.getId());
+        assertEquals(1, restored.getLabels().size());
+        assertEquals(1, taskRepository.count());
+
+        utils.perform(get(BASE_URL + ARCHIVE_CONTROLLER_PATH + ID, task.getId()), TEST_USERNAME)
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void archiveNothingYoungerThanPolicy() throws Exception {
+        utils.regDefaultUser();
+        regAdmin();
+        final Task task = utils.createDefaultTask(TEST_USERNAME);
+
+        final TaskArchiveResponse job = archive(new ArchivePolicyDto(task.getTaskStatus().getId(), 30));
+
+        assertEquals(TaskArchiveResponse.Status.DONE, job.status());
+        assertEquals(0, job.archived());
+        assertEquals(1, taskRepository.count());
+    }
+
+    @Test
+    public void archiveOnlyAsAdminAndRestoreOnlyOwn() throws Exception {
+        utils.regDefaultUser();
+        regAdmin();
+        utils.regUser(new UserDto(TEST_USERNAME_2, "First", "Last", "123"))
+                .andExpect(status().isCreated());
+        final Task task = utils.createDefaultTask(TEST_USERNAME);
+        final ArchivePolicyDto policy = new ArchivePolicyDto(task.getTaskStatus().getId(), 0);
+
+        utils.perform(post(BASE_URL + ARCHIVE_CONTROLLER_PATH)
+                        .content(asJson(policy))
+                        .contentType(APPLICATION_JSON), TEST_USERNAME)
+                .andExpect(status().isForbidden());
+        assertEquals(1, taskRepository.count());
+
+        archive(policy);
+        assertEquals(0, taskRepository.count());
+
+        utils.perform(post(BASE_URL + ARCHIVE_CONTROLLER_PATH + ID + RESTORE, task.getId()), TEST_USERNAME_2)
+                .andExpect(status().isForbidden());
+        assertEquals(0, taskRepository.count());
+
+        utils.perform(post(BASE_URL + ARCHIVE_CONTROLLER_PATH + ID + RESTORE, task.getId()), ADMIN_USERNAME)
+                .andExpect(status().isOk());
+        assertEquals(1, taskRepository.count());
+    }
+
+    private void regAdmin() throws Exception {
+        utils.regUser(new UserDto(ADMIN_USERNAME, "Admin", "Admin", "123"))
+                .andExpect(status().isCreated());
+    }
+
+    /**
+     * Starts an archive job as the admin and polls it until it is no longer running.
+     */
+    private TaskArchiveResponse archive(final ArchivePolicyDto policy) throws Exception {
+        TaskArchiveResponse job = fromJson(utils.perform(post(BASE_URL + ARCHIVE_CONTROLLER_PATH)
+                        .content(asJson(policy))
+                        .contentType(APPLICATION_JSON), ADMIN_USERNAME)
+                .andExpect(status().isAccepted())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(), new TypeReference<>() {
+                });
+        for (int i = 0; i < MAX_POLLS && job.status() == TaskArchiveResponse.Status.RUNNING; i++) {
+            Thread.sleep(POLL_INTERVAL_MS);
+            job = fromJson(utils.perform(get(BASE_URL + ARCHIVE_CONTROLLER_PATH + JOBS + JOB_ID, job.jobId()),
+                            ADMIN_USERNAME)
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString(), new TypeReference<>() {
+                    });
+        }
+        return job;
+    }
+}
@@ -3,8 +3,12 @@ package hexlet.code.controller;
 import com.fasterxml.jackson.core.type.TypeReference;
 import hexlet.code.config.SpringConfig;
 import hexlet.code.dto.LabelDto;
+import hexlet.code.dto.TaskCountResponse;
 import hexlet.code.dto.TaskDto;
+import hexlet.code.dto.TaskExportDto;
+import hexlet.code.dto.TaskReassignmentDto;
 import hexlet.code.dto.TaskStatusDto;
+import hexlet.code.dto.TaskStatusMoveDto;
 import hexlet.code.dto.UserDto;
 import hexlet.code.model.Label;
 import hexlet.code.model.Task;
@@ -22,15 +26,27 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import static hexlet.code.component.IdempotencyStore.IDEMPOTENCY_KEY;
 import static hexlet.code.config.SpringConfig.TEST_PROFILE;
 import static hexlet.code.controller.LabelController.LABEL_CONTROLLER_PATH;
+import static hexlet.code.controller.TaskController.COUNT;
+import static hexlet.code.controller.TaskController.EXPORT;
+import static hexlet.code.controller.TaskController.IMPORT;
+import static hexlet.code.controller.TaskController.MINE;
+import static hexlet.code.controller.TaskController.MOVE_STATUS;
+import static hexlet.code.controller.TaskController.REASSIGN;
 import static hexlet.code.controller.TaskController.TASK_CONTROLLER_PATH;
+import static hexlet.code.controller.TaskController.TOTAL_COUNT;
 import static hexlet.code.controller.TaskStatusController.TASK_STATUS_CONTROLLER_PATH;
 import static hexlet.code.controller.UserController.ID;
 import static hexlet.code.controller.UserController.USER_CONTROLLER_PATH;
+import static hexlet.code.dto.TaskReassignmentDto.Role.AUTHOR;
+import static hexlet.code.utils.TestUtils.ADMIN_USERNAME;
 import static hexlet.code.utils.TestUtils.BASE_URL;
 import static hexlet.code.utils.TestUtils.TEST_USERNAME;
 import static hexlet.code.utils.TestUtils.TEST_USERNAME_2;
@@ -41,6 +57,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -633,6 +650,51 @@ public class TaskControllerTest {
         assertThat(existingTask.getTaskStatus().getCreatedAt()).isEqualTo(tasks.get(0).getTaskStatus().getCreatedAt());
     }
 
+    @Test
+    public void getTasksWithInListsRangesAndSort() throws Exception {
+        utils.regDefaultUser();
+        final Long executorId = userRepository.findByEmail(TEST_USERNAME).get().getId();
+
+        final Task first = utils.createDefaultTask(TEST_USERNAME);
+        final TaskStatus second = createTaskStatus("In development");
+        final TaskStatus third = createTaskStatus("Fixed");
+        final Task assigned = createTask(new TaskDto("Assigned", null, executorId, second.getId(), null));
+        createTask(new TaskDto("Fixed task", null, null, third.getId(), null));
+
+        // repeated values are an IN list, sorted newest id first
+        final List<Task> inStatuses = getTasks("?taskStatus=" + first.getTaskStatus().getId()
+                + "&taskStatus=" + second.getId() + "&sort=id,desc");
+        assertThat(inStatuses).extracting(Task::getId).containsExactly(assigned.getId(), first.getId());
+
+        assertThat(getTasks("?executorId=" + executorId)).extracting(Task::getId).containsExactly(assigned.getId());
+
+        // one date is the start of a range
+        assertThat(getTasks("?createdAt=" + LocalDate.now().minusDays(1))).hasSize(3);
+        assertThat(getTasks("?createdAt=" + LocalDate.now().plusDays(1))).isEmpty();
+        assertThat(getTasks("?createdAt=" + LocalDate.now().minusDays(1)
+                + "&createdAt=" + LocalDate.now().minusDays(1))).isEmpty();
+
+        utils.perform(get(BASE_URL + TASK_CONTROLLER_PATH + "?sort=name"), TEST_USERNAME)
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void countTasks() throws Exception {
+        utils.regDefaultUser();
+        final Task first = utils.createDefaultTask(TEST_USERNAME);
+        final TaskStatus second = createTaskStatus("In development");
+        createTask(new TaskDto("Second task", null, null, second.getId(), null));
+
+        final String byStatus = "?taskStatus=" + first.getTaskStatus().getId();
+        assertEquals(new TaskCountResponse(1, false), countTasks(byStatus));
+        assertEquals(new TaskCountResponse(2, false), countTasks(""));
+
+        // a write invalidates the cached counts
+        createTask(new TaskDto("Third task", null, null, first.getTaskStatus().getId(), null));
+        assertEquals(new TaskCountResponse(2, false), countTasks(byStatus));
+        assertEquals(new TaskCountResponse(3, false), countTasks(""));
+    }
+
     @Test
     public void getTaskById() throws Exception {
         utils.regDefaultUser();
@@ -1153,4 +1215,326 @@ public class TaskControllerTest {
         assertEquals(task7.getTaskStatus().getName(), tasks.get(0).getTaskStatus().getName());
         assertThat(task7.getTaskStatus().getCreatedAt()).isEqualTo(tasks.get(0).getTaskStatus().getCreatedAt());
     }
+
+    @Test
+    public void getTasksWithSelectedFields() throws Exception {
+        utils.regDefaultUser();
+
+        // existing task
+        final Task existingTask = utils.createDefaultTask(TEST_USERNAME);
+
+        // get only the fields used by the board
+        final var response = utils.perform(get(BASE_URL + TASK_CONTROLLER_PATH)
+                        .param("fields", "name,taskStatus.id,executor.id,labels.id"), TEST_USERNAME)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+
+        final List<Map<String, Object>> tasks = fromJson(response.getContentAsString(), new TypeReference<>() {
+        });
+        assertThat(tasks).hasSize(1);
+        assertThat(tasks.get(0)).containsOnlyKeys("id", "name", "taskStatus", "executor", "labels");
+        assertThat(tasks.get(0).get("name")).isEqualTo(existingTask.getName());
+        assertThat(tasks.get(0).get("taskStatus"))
+                .isEqualTo(Map.of("id", existingTask.getTaskStatus().getId().intValue()));
+        assertNull(tasks.get(0).get("executor"));
+        assertThat(tasks.get(0).get("labels")).isEqualTo(List.of());
+    }
+
+    @Test
+    public void getTasksWithUnknownField() throws Exception {
+        utils.regDefaultUser();
+
+        utils.perform(get(BASE_URL + TASK_CONTROLLER_PATH)
+                        .param("fields", "author.password"), TEST_USERNAME)
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void exportAndImportTasks() throws Exception {
+        utils.regDefaultUser();
+
+        // existing task
+        final Task existingTask = utils.createDefaultTask(TEST_USERNAME);
+
+        // export
+        final String exported = utils.perform(get(BASE_URL + TASK_CONTROLLER_PATH + EXPORT), TEST_USERNAME)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        final List<String> lines = exported.lines().toList();
+        assertThat(lines).hasSize(1);
+        final TaskExportDto line = fromJson(lines.get(0), new TypeReference<>() {
+        });
+        assertEquals(existingTask.getId(), line.id());
+        assertEquals(existingTask.getName(), line.name());
+        assertEquals(existingTask.getTaskStatus().getId(), line.taskStatusId());
+        assertEquals(existingTask.getAuthor().getId(), line.authorId());
+
+        // import two more tasks
+        final String toImport = asJson(new TaskExportDto(null, "Imported 1", null, line.taskStatusId(),
+                null, null, List.of(), null)) + "\n"
+                + asJson(new TaskExportDto(null, "Imported 2", "Description", line.taskStatusId(),
+                line.authorId(), line.authorId(), null, null)) + "\n";
+
+        final var response = utils.perform(post(BASE_URL + TASK_CONTROLLER_PATH + IMPORT)
+                        .content(toImport)
+                        .contentType(APPLICATION_NDJSON), TEST_USERNAME)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+
+        assertThat(response.getContentAsString()).contains("\"imported\":2");
+        assertEquals(3, taskRepository.count());
+    }
+
+    @Test
+    public void importInvalidTasks() throws Exception {
+        utils.regDefaultUser();
+
+        utils.perform(post(BASE_URL + TASK_CONTROLLER_PATH + IMPORT)
+                        .content("{\"name\":\"No status\"}\n")
+                        .contentType(APPLICATION_NDJSON), TEST_USERNAME)
+                .andExpect(status().isBadRequest());
+
+        assertEquals(0, taskRepository.count());
+    }
+
+    @Test
+    public void reassignTasksToAnotherUser() throws Exception {
+        utils.regDefaultUser();
+        final Task existingTask = utils.createDefaultTask(TEST_USERNAME);
+        final User user2 = fromJson(utils.regUser(new UserDto(TEST_USERNAME_2, "First", "Last", "123"))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(), new TypeReference<>() {
+                });
+        final Long user1Id = existingTask.getAuthor().getId();
+
+        final var response = utils.perform(post(BASE_URL + TASK_CONTROLLER_PATH + REASSIGN)
+                        .content(asJson(new TaskReassignmentDto(AUTHOR, user1Id, user2.getId(), null)))
+                        .contentType(APPLICATION_JSON), TEST_USERNAME)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+
+        assertThat(response.getContentAsString()).contains("\"updated\":1");
+        assertEquals(user2.getId(), taskRepository.findById(existingTask.getId()).get().getAuthor().getId());
+
+        // nothing blocks the delete any more
+        utils.perform(delete(BASE_URL + USER_CONTROLLER_PATH + ID, user1Id), TEST_USERNAME)
+                .andExpect(status().isOk());
+        assertEquals(1, userRepository.count());
+    }
+
+    @Test
+    public void moveTasksToAnotherStatus() throws Exception {
+        utils.regDefaultUser();
+        final Task existingTask = utils.createDefaultTask(TEST_USERNAME);
+        final TaskStatus done = fromJson(utils.perform(post(BASE_URL + TASK_STATUS_CONTROLLER_PATH)
+                        .content(asJson(new TaskStatusDto("Done")))
+                        .contentType(APPLICATION_JSON), TEST_USERNAME)
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(), new TypeReference<>() {
+                });
+        final Long fromStatusId = existingTask.getTaskStatus().getId();
+
+        // a label filter that matches nothing
+        utils.perform(post(BASE_URL + TASK_CONTROLLER_PATH + MOVE_STATUS)
+                        .content(asJson(new TaskStatusMoveDto(fromStatusId, done.getId(), Long.MAX_VALUE)))
+                        .contentType(APPLICATION_JSON), TEST_USERNAME)
+                .andExpect(status().isOk());
+        assertEquals(fromStatusId, taskRepository.findById(existingTask.getId()).get().getTaskStatus().getId());
+
+        final var response = utils.perform(post(BASE_URL + TASK_CONTROLLER_PATH + MOVE_STATUS)
+                        .content(asJson(new TaskStatusMoveDto(fromStatusId, done.getId(), null)))
+                        .contentType(APPLICATION_JSON), TEST_USERNAME)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+
+        assertThat(response.getContentAsString()).contains("\"updated\":1");
+        assertEquals(done.getId(), taskRepository.findById(existingTask.getId()).get().getTaskStatus().getId());
+    }
+
+    @Test
+    public void reassignTasksOnlyFromSelfOrAsAdmin() throws Exception {
+        utils.regDefaultUser();
+        final Task existingTask = utils.createDefaultTask(TEST_USERNAME);
+        final User user2 = fromJson(utils.regUser(new UserDto(TEST_USERNAME_2, "First", "Last", "123"))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(), new TypeReference<>() {
+                });
+        utils.regUser(new UserDto(ADMIN_USERNAME, "Admin", "Admin", "123"))
+                .andExpect(status().isCreated());
+        final Long user1Id = existingTask.getAuthor().getId();
+
+        // taking over the tasks of another user
+        utils.perform(post(BASE_URL + TASK_CONTROLLER_PATH + REASSIGN)
+                        .content(asJson(new TaskReassignmentDto(AUTHOR, user1Id, user2.getId(), null)))
+                        .contentType(APPLICATION_JSON), TEST_USERNAME_2)
+                .andExpect(status().isForbidden());
+        assertEquals(user1Id, taskRepository.findById(existingTask.getId()).get().getAuthor().getId());
+
+        utils.perform(post(BASE_URL + TASK_CONTROLLER_PATH + REASSIGN)
+                        .content(asJson(new TaskReassignmentDto(AUTHOR, Long.MAX_VALUE, user2.getId(), null)))
+                        .contentType(APPLICATION_JSON), ADMIN_USERNAME)
+                .andExpect(status().isNotFound());
+        utils.perform(post(BASE_URL + TASK_CONTROLLER_PATH + REASSIGN)
+                        .content(asJson(new TaskReassignmentDto(AUTHOR, user1Id, Long.MAX_VALUE, null)))
+                        .contentType(APPLICATION_JSON), ADMIN_USERNAME)
+                .andExpect(status().isNotFound());
+
+        utils.perform(post(BASE_URL + TASK_CONTROLLER_PATH + REASSIGN)
+                        .content(asJson(new TaskReassignmentDto(AUTHOR, user1Id, user2.getId(), null)))
+                        .contentType(APPLICATION_JSON), ADMIN_USERNAME)
+                .andExpect(status().isOk());
+        assertEquals(user2.getId(), taskRepository.findById(existingTask.getId()).get().getAuthor().getId());
+    }
+
+    @Test
+    public void moveTasksOnlyOwnUnlessAdmin() throws Exception {
+        utils.regDefaultUser();
+        final Task existingTask = utils.createDefaultTask(TEST_USERNAME);
+        utils.regUser(new UserDto(TEST_USERNAME_2, "First", "Last", "123"))
+                .andExpect(status().isCreated());
+        utils.regUser(new UserDto(ADMIN_USERNAME, "Admin", "Admin", "123"))
+                .andExpect(status().isCreated());
+        final TaskStatus done = createTaskStatus("Done");
+        final Long fromStatusId = existingTask.getTaskStatus().getId();
+
+        final var response = utils.perform(post(BASE_URL + TASK_CONTROLLER_PATH + MOVE_STATUS)
+                        .content(asJson(new TaskStatusMoveDto(fromStatusId, done.getId(), null)))
+                        .contentType(APPLICATION_JSON), TEST_USERNAME_2)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        assertThat(response.getContentAsString()).contains("\"updated\":0");
+        assertEquals(fromStatusId, taskRepository.findById(existingTask.getId()).get().getTaskStatus().getId());
+
+        utils.perform(post(BASE_URL + TASK_CONTROLLER_PATH + MOVE_STATUS)
+                        .content(asJson(new TaskStatusMoveDto(Long.MAX_VALUE, done.getId(), null)))
+                        .contentType(APPLICATION_JSON), ADMIN_USERNAME)
+                .andExpect(status().isNotFound());
+
+        utils.perform(post(BASE_URL + TASK_CONTROLLER_PATH + MOVE_STATUS)
+                        .content(asJson(new TaskStatusMoveDto(fromStatusId, done.getId(), null)))
+                        .contentType(APPLICATION_JSON), ADMIN_USERNAME)
+                .andExpect(status().isOk());
+        assertEquals(done.getId(), taskRepository.findById(existingTask.getId()).get().getTaskStatus().getId());
+    }
+
+    @Test
+    public void getMyTasksFollowsAssignments() throws Exception {
+        utils.regDefaultUser();
+        final TaskStatus taskStatus = utils.createDefaultTaskStatus(TEST_USERNAME);
+        final Long userId = userRepository.findByEmail(TEST_USERNAME).get().getId();
+        final Task assigned = createTask(new TaskDto("Assigned", null, userId, taskStatus.getId(), null));
+        final Task unassigned = createTask(new TaskDto("Unassigned", null, null, taskStatus.getId(), null));
+
+        assertThat(getMyTasks()).extracting(Task::getId).containsExactly(assigned.getId());
+
+        utils.perform(put(BASE_URL + TASK_CONTROLLER_PATH + ID, unassigned.getId())
+                        .content(asJson(new TaskDto("Unassigned", null, userId, taskStatus.getId(), null)))
+                        .contentType(APPLICATION_JSON), TEST_USERNAME)
+                .andExpect(status().isOk());
+        assertThat(getMyTasks()).extracting(Task::getId)
+                .containsExactlyInAnyOrder(assigned.getId(), unassigned.getId());
+
+        utils.perform(delete(BASE_URL + TASK_CONTROLLER_PATH + ID, assigned.getId()), TEST_USERNAME)
+                .andExpect(status().isOk());
+        assertThat(getMyTasks()).extracting(Task::getId).containsExactly(unassigned.getId());
+    }
+
+    @Test
+    public void getMyTasksWithLargeInbox() throws Exception {
+        utils.regDefaultUser();
+        final TaskStatus taskStatus = utils.createDefaultTaskStatus(TEST_USERNAME);
+        final Long userId = userRepository.findByEmail(TEST_USERNAME).get().getId();
+        for (int i = 0; i <= TaskRepository.MAX_FILTER_VALUES; i++) {
+            createTask(new TaskDto("Task " + i, null, userId, taskStatus.getId(), null));
+        }
+        createTask(new TaskDto("Unassigned", null, null, taskStatus.getId(), null));
+
+        assertThat(getMyTasks()).hasSize(TaskRepository.MAX_FILTER_VALUES + 1)
+                .allSatisfy(task -> assertEquals(userId, task.getExecutor().getId()));
+    }
+
+    @Test
+    public void idempotencyKeysArePerUser() throws Exception {
+        utils.regDefaultUser();
+        utils.regUser(new UserDto(TEST_USERNAME_2, "First", "Last", "123"));
+        final TaskStatus taskStatus = utils.createDefaultTaskStatus(TEST_USERNAME);
+
+        utils.perform(post(BASE_URL + TASK_CONTROLLER_PATH)
+                        .header(IDEMPOTENCY_KEY, "task-1")
+                        .content(asJson(new TaskDto("First task", null, null, taskStatus.getId(), null)))
+                        .contentType(APPLICATION_JSON), TEST_USERNAME)
+                .andExpect(status().isCreated());
+        utils.perform(post(BASE_URL + TASK_CONTROLLER_PATH)
+                        .header(IDEMPOTENCY_KEY, "task-1")
+                        .content(asJson(new TaskDto("Second task", null, null, taskStatus.getId(), null)))
+                        .contentType(APPLICATION_JSON), TEST_USERNAME_2)
+                .andExpect(status().isCreated());
+
+        assertEquals(2, taskRepository.count());
+    }
+
+    private TaskStatus createTaskStatus(final String name) throws Exception {
+        return fromJson(utils.perform(post(BASE_URL + TASK_STATUS_CONTROLLER_PATH)
+                        .content(asJson(new TaskStatusDto(name)))
+                        .contentType(APPLICATION_JSON), TEST_USERNAME)
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(), new TypeReference<>() {
+                });
+    }
+
+    private List<Task> getTasks(final String query) throws Exception {
+        return fromJson(utils.perform(get(BASE_URL + TASK_CONTROLLER_PATH + query), TEST_USERNAME)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(), new TypeReference<>() {
+                });
+    }
+
+    private TaskCountResponse countTasks(final String query) throws Exception {
+        final var response = utils.perform(get(BASE_URL + TASK_CONTROLLER_PATH + COUNT + query), TEST_USERNAME)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        final TaskCountResponse count = fromJson(response.getContentAsString(), new TypeReference<>() {
+        });
+        assertEquals(Long.toString(count.totalCount()), response.getHeader(TOTAL_COUNT));
+        return count;
+    }
+
+    private Task createTask(final TaskDto dto) throws Exception {
+        return fromJson(utils.perform(post(BASE_URL + TASK_CONTROLLER_PATH)
+                        .content(asJson(dto))
+                        .contentType(APPLICATION_JSON), TEST_USERNAME)
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(), new TypeReference<>() {
+                });
+    }
+
+    private List<Task> getMyTasks() throws Exception {
+        return fromJson(utils.perform(get(BASE_URL + TASK_CONTROLLER_PATH + MINE), TEST_USERNAME)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(), new TypeReference<>() {
+                });
+    }
 }
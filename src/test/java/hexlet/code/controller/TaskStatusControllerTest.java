@@ -3,10 +3,13 @@ package hexlet.code.controller;
 import com.fasterxml.jackson.core.type.TypeReference;
 import hexlet.code.config.SpringConfig;
 import hexlet.code.dto.TaskStatusDto;
+import hexlet.code.dto.TaskStatusResponse;
 import hexlet.code.model.Task;
 import hexlet.code.model.TaskStatus;
 import hexlet.code.repository.TaskStatusRepository;
+import hexlet.code.service.TaskStatusService;
 import hexlet.code.utils.TestUtils;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,11 +19,17 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import static hexlet.code.component.SingleFlight.LOADS_METRIC;
 import static hexlet.code.config.SpringConfig.TEST_PROFILE;
 import static hexlet.code.controller.TaskStatusController.TASK_STATUS_CONTROLLER_PATH;
 import static hexlet.code.controller.UserController.ID;
+import static hexlet.code.service.TaskStatusServiceImpl.TASK_STATUS_LIST_READS;
 import static hexlet.code.utils.TestUtils.BASE_URL;
 import static hexlet.code.utils.TestUtils.asJson;
 import static hexlet.code.utils.TestUtils.fromJson;
@@ -47,6 +56,12 @@ public class TaskStatusControllerTest {
     @Autowired
     private TaskStatusRepository taskStatusRepository;
 
+    @Autowired
+    private TaskStatusService taskStatusService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @AfterEach
     public void clear() {
         utils.tearDown();
@@ -272,4 +287,31 @@ public class TaskStatusControllerTest {
 
         assertEquals(1, taskStatusRepository.count());
     }
+
+    @Test
+    public void concurrentReadsAreCoalesced() throws Exception {
+        utils.regDefaultUser();
+        utils.createDefaultTaskStatus(TEST_USERNAME);
+        final double before = loads("executed") + loads("shared");
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<List<TaskStatusResponse>>> results = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                results.add(executor.submit(taskStatusService::getTaskStatuses));
+            }
+            for (Future<List<TaskStatusResponse>> result : results) {
+                assertThat(result.get()).hasSize(1);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // every read either ran the query or shared one in flight
+        assertEquals(before + 32, loads("executed") + loads("shared"));
+    }
+
+    private double loads(final String result) {
+        return meterRegistry.counter(LOADS_METRIC, "name", TASK_STATUS_LIST_READS, "result", result).count();
+    }
 }
@@ -0,0 +1,172 @@
+package hexlet.code.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import hexlet.code.component.JWTHelper;
+import hexlet.code.component.TokenRevocations;
+import hexlet.code.config.SpringConfig;
+import hexlet.code.dto.LoginDto;
+import hexlet.code.dto.RefreshTokenDto;
+import hexlet.code.dto.TokenResponse;
+import hexlet.code.utils.TestUtils;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static hexlet.code.component.JWTHelper.ACCESS;
+import static hexlet.code.component.JWTHelper.TOKEN_ID;
+import static hexlet.code.config.SpringConfig.TEST_PROFILE;
+import static hexlet.code.controller.TaskStatusController.TASK_STATUS_CONTROLLER_PATH;
+import static hexlet.code.controller.TokenController.REFRESH;
+import static hexlet.code.controller.TokenController.REVOKE;
+import static hexlet.code.controller.TokenController.TOKEN_CONTROLLER_PATH;
+import static hexlet.code.filter.JWTAuthenticationFilter.REFRESH_TOKEN_HEADER;
+import static hexlet.code.utils.TestUtils.BASE_URL;
+import static hexlet.code.utils.TestUtils.TEST_USERNAME;
+import static hexlet.code.utils.TestUtils.asJson;
+import static hexlet.code.utils.TestUtils.fromJson;
+import static io.jsonwebtoken.SignatureAlgorithm.HS256;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@ActiveProfiles(TEST_PROFILE)
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = RANDOM_PORT, classes = SpringConfig.class)
+public class TokenControllerTest {
+
+    @Autowired
+    private TestUtils utils;
+
+    @Autowired
+    private JWTHelper jwtHelper;
+
+    @Autowired
+    private TokenRevocations tokenRevocations;
+
+    @Value("${jwt.secret:secret}")
+    private String secret;
+
+    @AfterEach
+    public void clear() {
+        utils.tearDown();
+    }
+
+    @Test
+    public void refreshRotatesTokens() throws Exception {
+        utils.regDefaultUser();
+        final String refreshToken = login().getHeader(REFRESH_TOKEN_HEADER);
+        assertThat(refreshToken).isNotBlank();
+
+        final var response = utils.perform(post(BASE_URL + TOKEN_CONTROLLER_PATH + REFRESH)
+                        .content(asJson(new RefreshTokenDto(refreshToken)))
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        final TokenResponse tokens = fromJson(response.getContentAsString(), new TypeReference<>() {
+        });
+
+        assertThat(tokens.refreshToken()).isNotEqualTo(refreshToken);
+        utils.perform(get(BASE_URL + TASK_STATUS_CONTROLLER_PATH)
+                        .header(AUTHORIZATION, "Bearer " + tokens.accessToken()))
+                .andExpect(status().isOk());
+
+        // the old refresh token has been spent
+        utils.perform(post(BASE_URL + TOKEN_CONTROLLER_PATH + REFRESH)
+                        .content(asJson(new RefreshTokenDto(refreshToken)))
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void accessTokenIsNotARefreshToken() throws Exception {
+        utils.regDefaultUser();
+        final String accessToken = login().getContentAsString().trim();
+
+        utils.perform(post(BASE_URL + TOKEN_CONTROLLER_PATH + REFRESH)
+                        .content(asJson(new RefreshTokenDto(accessToken)))
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void revokeTokens() throws Exception {
+        utils.regDefaultUser();
+        final var login = login();
+        final String accessToken = login.getContentAsString().trim();
+        final String refreshToken = login.getHeader(REFRESH_TOKEN_HEADER);
+        assertFalse(tokenRevocations.isRevoked(tokenId(accessToken)));
+
+        utils.perform(post(BASE_URL + TOKEN_CONTROLLER_PATH + REVOKE)
+                        .header(AUTHORIZATION, "Bearer " + accessToken)
+                        .content(asJson(new RefreshTokenDto(refreshToken)))
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        assertTrue(tokenRevocations.isRevoked(tokenId(accessToken)));
+        assertTrue(tokenRevocations.isRevoked(tokenId(refreshToken)));
+
+        // still revoked after the filter is rebuilt from the table
+        tokenRevocations.rebuild();
+        assertTrue(tokenRevocations.isRevoked(tokenId(accessToken)));
+        utils.perform(post(BASE_URL + TOKEN_CONTROLLER_PATH + REFRESH)
+                        .content(asJson(new RefreshTokenDto(refreshToken)))
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void verifyTokenFallsBackToJjwt() {
+        final String token = jwtHelper.expiring(Map.of("username", TEST_USERNAME));
+        final JWTHelper.VerifiedToken verified = jwtHelper.verifyToken(token);
+        assertEquals(TEST_USERNAME, verified.username());
+        assertEquals(ACCESS, verified.type());
+        assertEquals(jwtHelper.verify(token).get(TOKEN_ID), verified.tokenId());
+
+        // a header the fast path does not handle, accepted by jjwt
+        final String withKeyId = Jwts.builder()
+                .setHeaderParam("kid", "1")
+                .setClaims(jwtHelper.verify(token))
+                .signWith(HS256, secret.getBytes(StandardCharsets.UTF_8))
+                .compact();
+        assertEquals(TEST_USERNAME, jwtHelper.verifyToken(withKeyId).username());
+
+        // a bad signature is rejected by jjwt with the usual exception
+        final String tampered = token.substring(0, token.lastIndexOf('.') + 1) + "A".repeat(43);
+        assertThrows(SignatureException.class, () -> jwtHelper.verifyToken(tampered));
+    }
+
+    private MockHttpServletResponse login() throws Exception {
+        return utils.perform(post(BASE_URL + "/login")
+                        .content(asJson(new LoginDto(null, null, TEST_USERNAME, "pwd")))
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+    }
+
+    private String tokenId(final String token) {
+        return (String) jwtHelper.verify(token).get(TOKEN_ID);
+    }
+}
@@ -22,6 +22,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import static hexlet.code.component.IdempotencyStore.IDEMPOTENCY_KEY;
 import static hexlet.code.config.SpringConfig.TEST_PROFILE;
 import static hexlet.code.controller.UserController.ID;
 import static hexlet.code.controller.UserController.USER_CONTROLLER_PATH;
@@ -684,7 +685,37 @@ public class UserControllerTest {
                 .getResponse();
 
         assertThat(response.getContentAsString()).contains("Cannot delete the user. The user has tasks");
+        assertThat(response.getContentAsString())
+                .contains("\"references\":{\"authorTasks\":1,\"executorTasks\":0}");
 
         assertEquals(1, userRepository.count());
     }
+
+    @Test
+    public void repeatedRegistrationWithIdempotencyKey() throws Exception {
+        final var request = post(BASE_URL + USER_CONTROLLER_PATH)
+                .header(IDEMPOTENCY_KEY, "registration-1")
+                .content(asJson(utils.getTestRegistrationDto()))
+                .contentType(APPLICATION_JSON);
+
+        final var first = utils.perform(request)
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse();
+        final var replay = utils.perform(request)
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse();
+
+        assertEquals(1, userRepository.count());
+        assertEquals(first.getContentAsString(), replay.getContentAsString());
+
+        final var changed = new UserDto(TEST_USERNAME_2, "fname", "lname", "pwd");
+        utils.perform(post(BASE_URL + USER_CONTROLLER_PATH)
+                        .header(IDEMPOTENCY_KEY, "registration-1")
+                        .content(asJson(changed))
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        assertEquals(1, userRepository.count());
+    }
 }
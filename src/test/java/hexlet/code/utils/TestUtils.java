@@ -37,6 +37,7 @@ public class TestUtils {
 
     public static final String TEST_USERNAME = "email@email.com";
     public static final String TEST_USERNAME_2 = "email2@email.com";
+    public static final String ADMIN_USERNAME = "admin@email.com";
     public static final String BASE_URL = "/api";
 
     private final UserDto testRegistrationDto = new UserDto(